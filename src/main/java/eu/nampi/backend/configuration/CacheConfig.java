@@ -1,9 +1,21 @@
 package eu.nampi.backend.configuration;
 
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import eu.nampi.backend.util.BodyRedisSerializer;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
+
+  @Bean
+  public RedisCacheConfiguration redisCacheConfiguration() {
+    return RedisCacheConfiguration
+        .defaultCacheConfig()
+        .serializeValuesWith(SerializationPair
+            .fromSerializer(new BodyRedisSerializer(getClass().getClassLoader())));
+  }
 }
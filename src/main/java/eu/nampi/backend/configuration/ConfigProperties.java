@@ -10,6 +10,8 @@ import lombok.Setter;
 @ConfigurationProperties(prefix = "nampi")
 public class ConfigProperties {
 
+  int changeLogSize;
+
   String coreOwlUrl;
 
   String datasetUrlData;
@@ -0,0 +1,89 @@
+package eu.nampi.backend.configuration;
+
+import java.util.List;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import eu.nampi.backend.util.Serializer;
+
+/**
+ * Sends the gzip compressed bodies of cache hits as they are to all clients that accept gzip and
+ * decompresses them for all others. Other bodies are only compressed for successful reads by
+ * clients that accept gzip, responses to writes and errors are sent as they are. Tomcat doesn't
+ * compress responses that already have a content encoding.
+ */
+@ControllerAdvice
+public class GzipBodyAdvice implements ResponseBodyAdvice<byte[]> {
+
+  private static final String GZIP = "gzip";
+
+  @Override
+  public boolean supports(MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return ByteArrayHttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public byte[] beforeBodyWrite(byte[] body, MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (body == null || body.length == 0) {
+      return body;
+    }
+    boolean compressed = Serializer.isCompressed(body);
+    if (!compressed && !isSuccessfulRead(request, response)) {
+      return body;
+    }
+    response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptsGzip(request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING))) {
+      response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+      return Serializer.compress(body);
+    }
+    return Serializer.decompress(body);
+  }
+
+  private boolean isSuccessfulRead(ServerHttpRequest request, ServerHttpResponse response) {
+    // The status of the response entity is already set on the servlet response
+    return HttpMethod.GET.equals(request.getMethod())
+        && response instanceof ServletServerHttpResponse
+        && ((ServletServerHttpResponse) response).getServletResponse().getStatus() < 300;
+  }
+
+  private boolean acceptsGzip(List<String> headers) {
+    // An explicit gzip entry takes precedence over the wildcard
+    Boolean gzip = null;
+    Boolean wildcard = null;
+    for (String header : headers) {
+      for (String coding : header.split(",")) {
+        String[] parts = coding.split(";");
+        String name = parts[0].trim().toLowerCase();
+        boolean accepted = true;
+        for (int i = 1; i < parts.length; i++) {
+          String parameter = parts[i].trim();
+          if (parameter.startsWith("q=")) {
+            try {
+              accepted = Double.parseDouble(parameter.substring(2)) > 0;
+            } catch (NumberFormatException e) {
+              accepted = false;
+            }
+          }
+        }
+        if (name.equals(GZIP)) {
+          gzip = accepted;
+        } else if (name.equals("*")) {
+          wildcard = accepted;
+        }
+      }
+    }
+    return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+  }
+}
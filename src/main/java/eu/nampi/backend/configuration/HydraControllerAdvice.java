@@ -22,6 +22,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import eu.nampi.backend.converter.StringToLangConverter;
+import eu.nampi.backend.exception.ChangesExpiredException;
 import eu.nampi.backend.exception.DeletionNotPermittedException;
 import eu.nampi.backend.exception.ForbiddenException;
 import eu.nampi.backend.exception.NotFoundException;
@@ -61,6 +62,12 @@ public class HydraControllerAdvice extends ResponseEntityExceptionHandler {
     return handle(ex, request, HttpStatus.CONFLICT, "Conflict");
   }
 
+  @ExceptionHandler(
+      value = {ChangesExpiredException.class})
+  protected ResponseEntity<Object> handleGone(RuntimeException ex, WebRequest request) {
+    return handle(ex, request, HttpStatus.GONE, "Gone");
+  }
+
   @Override
   protected ResponseEntity<Object> handleMissingServletRequestParameter(
       MissingServletRequestParameterException ex, HttpHeaders headers, HttpStatus status,
@@ -6,12 +6,15 @@ import org.springframework.http.HttpMethod;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import eu.nampi.backend.converter.StringToDateRangeConverter;
+import eu.nampi.backend.converter.StringToDatesMatchModeConverter;
+import eu.nampi.backend.converter.StringToFacetConverter;
 import eu.nampi.backend.converter.StringToLangConverter;
 import eu.nampi.backend.converter.StringToLiteralConverter;
 import eu.nampi.backend.converter.StringToOrderByClausesConverter;
 import eu.nampi.backend.converter.StringToPropertyConverter;
 import eu.nampi.backend.converter.StringToResourceConverter;
 import eu.nampi.backend.converter.StringToResourceCouple;
+import eu.nampi.backend.converter.StringToTotalItemsModeConverter;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -19,12 +22,15 @@ public class WebConfig implements WebMvcConfigurer {
   @Override
   public void addFormatters(FormatterRegistry registry) {
     registry.addConverter(new StringToDateRangeConverter());
+    registry.addConverter(new StringToDatesMatchModeConverter());
+    registry.addConverter(new StringToFacetConverter());
     registry.addConverter(new StringToLangConverter());
     registry.addConverter(new StringToLiteralConverter());
     registry.addConverter(new StringToOrderByClausesConverter());
     registry.addConverter(new StringToPropertyConverter());
     registry.addConverter(new StringToResourceConverter());
     registry.addConverter(new StringToResourceCouple());
+    registry.addConverter(new StringToTotalItemsModeConverter());
   }
 
   @Override
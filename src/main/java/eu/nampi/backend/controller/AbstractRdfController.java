@@ -3,6 +3,8 @@ package eu.nampi.backend.controller;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Resource;
@@ -12,6 +14,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 
 public abstract class AbstractRdfController {
 
@@ -22,7 +25,15 @@ public abstract class AbstractRdfController {
 
   protected QueryParameters getParameters(Optional<Integer> page, Optional<Integer> pageIndex,
       Optional<Integer> limit, Optional<Integer> offset, Optional<OrderByClauses> orderBy,
-      Optional<Resource> type, Optional<Literal> text) {
+      Optional<Resource> type, Optional<Literal> text, Optional<TotalItemsMode> totalItems) {
+    return getParameters(page, pageIndex, limit, offset, orderBy, type, text, totalItems,
+        Optional.empty());
+  }
+
+  protected QueryParameters getParameters(Optional<Integer> page, Optional<Integer> pageIndex,
+      Optional<Integer> limit, Optional<Integer> offset, Optional<OrderByClauses> orderBy,
+      Optional<Resource> type, Optional<Literal> text, Optional<TotalItemsMode> totalItems,
+      Optional<List<String>> fields) {
     HttpServletRequest request =
         ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
     String baseUrl = request.getRequestURL().toString();
@@ -33,7 +44,12 @@ public abstract class AbstractRdfController {
     boolean hasLimit = limit.isPresent();
     OrderByClauses clauses = orderBy.orElse(new OrderByClauses());
     return new QueryParameters(baseUrl, hasLimit, realLimit, realOffset, relativePath, clauses,
-        type, text);
+        type, text, totalItems.orElse(TotalItemsMode.EXACT),
+        fields.map(names -> names
+            .stream()
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toCollection(TreeSet::new))));
   }
 
   protected <T> List<T> asList(@Nullable List<T> value) {
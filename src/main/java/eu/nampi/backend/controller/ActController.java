@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.ActRepository;
 
 @RestController
@@ -24,8 +25,8 @@ public class ActController extends AbstractRdfController {
   ActRepository actRepository;
 
   @GetMapping(value = "/acts", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getActs(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getActs(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -34,19 +35,21 @@ public class ActController extends AbstractRdfController {
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
       @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems,
       @RequestParam("author") Optional<Resource> author,
       @RequestParam("source") Optional<Resource> source) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = actRepository.findAll(params, lang, author, source);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = actRepository.findAll(params, lang, author, source);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/acts/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = actRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = actRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 }
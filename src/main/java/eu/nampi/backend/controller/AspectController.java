@@ -1,5 +1,6 @@
 package eu.nampi.backend.controller;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -23,6 +24,7 @@ import eu.nampi.backend.model.AspectMutationPayload;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.AspectRepository;
 
 @RestController
@@ -32,8 +34,8 @@ public class AspectController extends AbstractRdfController {
   AspectRepository aspectRepository;
 
   @GetMapping(value = "/aspects", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getAspects(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getAspects(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -42,43 +44,54 @@ public class AspectController extends AbstractRdfController {
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
       @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems,
       @RequestParam("participant") Optional<Resource> participant) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = aspectRepository.findAll(params, lang, participant);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = aspectRepository.findAll(params, lang, participant);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/aspects", params = "id", produces = {"application/ld+json",
+      "text/turtle", "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getAspectsById(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("id") List<UUID> ids) {
+    byte[] result = aspectRepository.findMany(lang, ids);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/aspects/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getAspect(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getAspect(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = aspectRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = aspectRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/aspects", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postAspect(
+  public ResponseEntity<byte[]> postAspect(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody AspectMutationPayload payload) {
     InsertResult result = aspectRepository.insert(lang, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/aspects/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putAspect(
+  public ResponseEntity<byte[]> putAspect(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id,
       @Valid @RequestBody AspectMutationPayload payload) {
-    String newAspect =
+    byte[] newAspect =
         aspectRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
             asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
-    return new ResponseEntity<String>(newAspect, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(newAspect, HttpStatus.OK);
   }
 
   @DeleteMapping(value = "/aspects/{id}")
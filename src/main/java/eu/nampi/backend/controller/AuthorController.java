@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.AuthorRepository;
 
 @RestController
@@ -24,8 +25,8 @@ public class AuthorController extends AbstractRdfController {
   AuthorRepository authorRepository;
 
   @GetMapping(value = "/authors", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getAuthors(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getAuthors(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -33,18 +34,20 @@ public class AuthorController extends AbstractRdfController {
       @RequestParam("offset") Optional<Integer> offset,
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
-      @RequestParam("text") Optional<Literal> text) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = authorRepository.findAll(params, lang);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+      @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems) {
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = authorRepository.findAll(params, lang);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/authors/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = authorRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = authorRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 }
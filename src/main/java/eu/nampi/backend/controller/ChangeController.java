@@ -0,0 +1,65 @@
+package eu.nampi.backend.controller;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import eu.nampi.backend.service.ChangeLogService;
+
+@RestController
+public class ChangeController {
+
+  private static final String CONTENT_TYPE = "application/rdf-patch";
+  private static final int DEFAULT_LIMIT = 100;
+  private static final int MAX_LIMIT = 1000;
+  private static final int MAX_WAIT_SECONDS = 60;
+
+  @Autowired
+  ChangeLogService changeLogService;
+
+  /**
+   * Responds with at most limit changes after the provided sequence number. If there are none yet,
+   * the request is held open until the next change is recorded or the wait time has passed.
+   */
+  @GetMapping(value = "/changes", produces = CONTENT_TYPE)
+  public DeferredResult<ResponseEntity<String>> getChanges(
+      @RequestParam("since") long since,
+      @RequestParam("limit") Optional<Integer> limit,
+      @RequestParam("wait") Optional<Integer> wait) {
+    int count = limit.orElse(DEFAULT_LIMIT);
+    if (count < 1 || count > MAX_LIMIT) {
+      throw new IllegalArgumentException(
+          String.format("The limit needs to be between 1 and %d", MAX_LIMIT));
+    }
+    int seconds = wait.orElse(30);
+    if (seconds < 0 || seconds > MAX_WAIT_SECONDS) {
+      throw new IllegalArgumentException(
+          String.format("The wait time needs to be between 0 and %d seconds", MAX_WAIT_SECONDS));
+    }
+    DeferredResult<ResponseEntity<String>> result = new DeferredResult<>(
+        TimeUnit.SECONDS.toMillis(seconds), new ResponseEntity<String>(HttpStatus.NO_CONTENT));
+    Optional<String> changes = changeLogService.since(since, count);
+    if (changes.isPresent()) {
+      result.setResult(ok(changes.get()));
+      return result;
+    }
+    Runnable unsubscribe = changeLogService.subscribe(
+        () -> changeLogService.since(since, count).ifPresent(body -> result.setResult(ok(body))));
+    result.onCompletion(unsubscribe);
+    // A change might have been recorded before the subscription was in place
+    changeLogService.since(since, count).ifPresent(body -> result.setResult(ok(body)));
+    return result;
+  }
+
+  private ResponseEntity<String> ok(String body) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE);
+    return new ResponseEntity<String>(body, headers, HttpStatus.OK);
+  }
+}
@@ -16,8 +16,8 @@ public class DocumentationController extends AbstractRdfController {
   DocumentationRepository documentationRepository;
 
   @GetMapping(value = "/doc", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getDocumentation(@RequestHeader("accept") Lang lang) {
-    return new ResponseEntity<String>(documentationRepository.get(lang), HttpStatus.OK);
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getDocumentation(@RequestHeader("accept") Lang lang) {
+    return new ResponseEntity<byte[]>(documentationRepository.get(lang), HttpStatus.OK);
   }
 }
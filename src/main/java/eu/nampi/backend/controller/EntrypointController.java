@@ -16,8 +16,8 @@ public class EntrypointController extends AbstractRdfController {
   EntrypointRepository entrypointRepository;
 
   @GetMapping(value = "/", produces = {"application/ld+json", "text/turtle", "application/rdf+xml",
-      "application/n-triples"})
-  public ResponseEntity<String> getEntryPoint(@RequestHeader("accept") Lang lang) {
-    return new ResponseEntity<String>(entrypointRepository.get(lang), HttpStatus.OK);
+      "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEntryPoint(@RequestHeader("accept") Lang lang) {
+    return new ResponseEntity<byte[]>(entrypointRepository.get(lang), HttpStatus.OK);
   }
 }
@@ -1,5 +1,7 @@
 package eu.nampi.backend.controller;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -21,10 +23,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import eu.nampi.backend.exception.ForbiddenException;
+import eu.nampi.backend.model.DatesMatchMode;
 import eu.nampi.backend.model.EventMutationPayload;
+import eu.nampi.backend.model.Facet;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.EventRepository;
 import eu.nampi.backend.repository.UserRepository;
 
@@ -38,8 +43,8 @@ public class EventController extends AbstractRdfController {
   UserRepository userRepository;
 
   @GetMapping(value = "/events", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvents(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvents(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -48,7 +53,10 @@ public class EventController extends AbstractRdfController {
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
       @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems,
+      @RequestParam("fields") Optional<List<String>> fields,
       @RequestParam("dates") Optional<String> dates,
+      @RequestParam("datesMatch") Optional<DatesMatchMode> datesMatch,
       @RequestParam("aspect") Optional<Resource> aspect,
       @RequestParam("aspectType") Optional<Resource> aspectType,
       @RequestParam("aspectUseType") Optional<Property> aspectUseType,
@@ -58,24 +66,51 @@ public class EventController extends AbstractRdfController {
       @RequestParam("place") Optional<Resource> place,
       @RequestParam("author") Optional<Resource> author,
       @RequestParam("source") Optional<Resource> source) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result =
-        eventRepository.findAll(params, lang, dates, aspect, aspectType, aspectUseType, participant,
-            participantType, participationType, place, author, source);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems, fields);
+    byte[] result =
+        eventRepository.findAll(params, lang, dates, datesMatch, aspect, aspectType, aspectUseType,
+            participant, participantType, participationType, place, author, source);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/events/facets", produces = {"application/ld+json", "text/turtle",
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEventFacets(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("facet") Optional<List<Facet>> facets,
+      @RequestParam("type") Optional<Resource> type,
+      @RequestParam("text") Optional<Literal> text,
+      @RequestParam("dates") Optional<String> dates,
+      @RequestParam("datesMatch") Optional<DatesMatchMode> datesMatch,
+      @RequestParam("aspect") Optional<Resource> aspect,
+      @RequestParam("aspectType") Optional<Resource> aspectType,
+      @RequestParam("aspectUseType") Optional<Property> aspectUseType,
+      @RequestParam("participant") Optional<Resource> participant,
+      @RequestParam("participantType") Optional<Resource> participantType,
+      @RequestParam("participationType") Optional<Property> participationType,
+      @RequestParam("place") Optional<Resource> place,
+      @RequestParam("author") Optional<Resource> author,
+      @RequestParam("source") Optional<Resource> source) {
+    QueryParameters params = getParameters(Optional.empty(), Optional.empty(), Optional.empty(),
+        Optional.empty(), Optional.empty(), type, text, Optional.empty());
+    byte[] result = eventRepository.findFacets(params, lang,
+        facets.orElse(Arrays.asList(Facet.values())), dates, datesMatch, aspect, aspectType,
+        aspectUseType, participant, participantType, participationType, place, author, source);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/events/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(@RequestHeader("accept") Lang lang,
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(@RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = eventRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = eventRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/events", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postEvent(
+  public ResponseEntity<byte[]> postEvent(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody EventMutationPayload payload) {
     InsertResult result = eventRepository.insert(lang, payload.getTypes(), payload.getLabels(),
@@ -88,12 +123,12 @@ public class EventController extends AbstractRdfController {
         Optional.ofNullable(payload.getDate()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/events/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putEvent(
+  public ResponseEntity<byte[]> putEvent(
       @PathVariable("id") UUID id,
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody EventMutationPayload payload) {
@@ -101,7 +136,7 @@ public class EventController extends AbstractRdfController {
     if (!eventRepository.isAuthor(userId, id)) {
       throw new ForbiddenException();
     }
-    String newEvent = eventRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
+    byte[] newEvent = eventRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), payload.getAuthors(),
         payload.getSource(),
         Optional.ofNullable(payload.getSourceLocation())
@@ -109,7 +144,7 @@ public class EventController extends AbstractRdfController {
         payload.getMainParticipant(), asList(payload.getOtherParticipants()),
         asList(payload.getAspects()), Optional.ofNullable(payload.getPlace()),
         Optional.ofNullable(payload.getDate()));
-    return new ResponseEntity<String>(newEvent, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(newEvent, HttpStatus.CREATED);
   }
 
   @DeleteMapping(value = "/events/{id}")
@@ -0,0 +1,55 @@
+package eu.nampi.backend.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.jena.query.Query;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import eu.nampi.backend.repository.ExportRepository;
+
+@RestController
+public class ExportController {
+
+  private static final Map<String, Lang> EXTENSIONS = Map.of(
+      "nt", Lang.NTRIPLES,
+      "ttl", Lang.TURTLE,
+      "trdf", Lang.RDFTHRIFT);
+
+  @Autowired
+  ExportRepository exportRepository;
+
+  @GetMapping(value = "/export/{collection}.{extension}")
+  public ResponseEntity<StreamingResponseBody> getExport(
+      @PathVariable String collection,
+      @PathVariable String extension,
+      @RequestParam("since") @DateTimeFormat(iso = ISO.DATE) Optional<LocalDate> since) {
+    Lang lang = Optional
+        .ofNullable(EXTENSIONS.get(extension))
+        .orElseThrow(() -> new IllegalArgumentException(
+            String.format("Unknown export format '%s'", extension)));
+    Query query = exportRepository.query(collection, since);
+    // The body is written while the query results arrive, without a content length
+    StreamingResponseBody body = out -> {
+      StreamRDF output = StreamRDFWriter.getWriterStream(out, lang);
+      exportRepository.export(query, output);
+    };
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_TYPE, lang.getHeaderString());
+    headers.set(HttpHeaders.CONTENT_DISPOSITION,
+        String.format("attachment; filename=\"%s.%s\"", collection, extension));
+    return new ResponseEntity<StreamingResponseBody>(body, headers, HttpStatus.OK);
+  }
+}
@@ -1,5 +1,6 @@
 package eu.nampi.backend.controller;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -23,6 +24,7 @@ import eu.nampi.backend.model.GroupMutationPayload;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.GroupRepository;
 
 @RestController
@@ -32,8 +34,8 @@ public class GroupController extends AbstractRdfController {
   GroupRepository groupRepository;
 
   @GetMapping(value = "/groups", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getGroups(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getGroups(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -42,25 +44,49 @@ public class GroupController extends AbstractRdfController {
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
       @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems,
       @RequestParam("partOf") Optional<Resource> partOf,
       @RequestParam("hasPart") Optional<Resource> hasPart) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = groupRepository.findAll(params, lang, partOf, hasPart);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = groupRepository.findAll(params, lang, partOf, hasPart);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/groups", params = "id", produces = {"application/ld+json",
+      "text/turtle", "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getGroupsById(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("id") List<UUID> ids) {
+    byte[] result = groupRepository.findMany(lang, ids);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/groups/{id}/tree", produces = {"application/ld+json", "text/turtle",
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getGroupTree(
+      @RequestHeader("accept") Lang lang,
+      @PathVariable UUID id,
+      @RequestParam("ancestors") Optional<Boolean> ancestors,
+      @RequestParam("descendants") Optional<Boolean> descendants,
+      @RequestParam("depth") Optional<Integer> depth) {
+    byte[] result = groupRepository.findTree(lang, id, ancestors.orElse(true),
+        descendants.orElse(true), depth.orElse(Integer.MAX_VALUE));
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/groups/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getGvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getGvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = groupRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = groupRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/groups", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postGroup(
+  public ResponseEntity<byte[]> postGroup(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody GroupMutationPayload payload) {
     InsertResult result = groupRepository.insert(lang, payload.getTypes(), payload.getLabels(),
@@ -68,19 +94,19 @@ public class GroupController extends AbstractRdfController {
         asList(payload.getPartOf()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/groups/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putGroup(
+  public ResponseEntity<byte[]> putGroup(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id,
       @Valid @RequestBody GroupMutationPayload payload) {
-    String newGroup = groupRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
+    byte[] newGroup = groupRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()),
         asList(payload.getPartOf()));
-    return new ResponseEntity<String>(newGroup, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(newGroup, HttpStatus.OK);
   }
 
   @DeleteMapping(value = "/groups/{id}")
@@ -17,13 +17,13 @@ public class HierarchyController extends AbstractRdfController {
   HierarchyRepository hierarchyRepository;
 
   @GetMapping(value = "/hierarchy", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getHierarchy(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getHierarchy(
       @RequestHeader("accept") Lang lang,
       @RequestParam("iri") String iri,
       @RequestParam(value = "descendants", required = false) Boolean descendants) {
-    String result =
+    byte[] result =
         hierarchyRepository.findHierarchy(lang, iri, descendants == null ? false : descendants);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 }
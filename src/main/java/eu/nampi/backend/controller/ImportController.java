@@ -0,0 +1,31 @@
+package eu.nampi.backend.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.jena.riot.Lang;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import eu.nampi.backend.repository.ImportRepository;
+
+@RestController
+public class ImportController {
+
+  @Autowired
+  ImportRepository importRepository;
+
+  @PostMapping(value = "/import", produces = {"application/ld+json", "text/turtle",
+      "application/rdf+xml", "application/n-triples"},
+      consumes = {"application/x-ndjson", "application/jsonl"})
+  public ResponseEntity<byte[]> postImport(
+      @RequestHeader("accept") Lang lang,
+      @RequestBody String body) {
+    List<String> lines = body.lines().collect(Collectors.toList());
+    byte[] result = importRepository.importLines(lang, lines);
+    return new ResponseEntity<byte[]>(result, HttpStatus.CREATED);
+  }
+}
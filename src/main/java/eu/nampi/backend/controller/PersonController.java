@@ -1,5 +1,6 @@
 package eu.nampi.backend.controller;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -23,6 +24,7 @@ import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.PersonMutationPayload;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.PersonRepository;
 
 @RestController
@@ -32,8 +34,8 @@ public class PersonController extends AbstractRdfController {
   PersonRepository personRepository;
 
   @GetMapping(value = "/persons", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getPersons(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getPersons(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -42,42 +44,54 @@ public class PersonController extends AbstractRdfController {
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
       @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems,
+      @RequestParam("fields") Optional<List<String>> fields,
       @RequestParam("aspect") Optional<Resource> aspect) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = personRepository.findAll(params, lang, aspect);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems, fields);
+    byte[] result = personRepository.findAll(params, lang, aspect);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/persons", params = "id", produces = {"application/ld+json",
+      "text/turtle", "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getPersonsById(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("id") List<UUID> ids) {
+    byte[] result = personRepository.findMany(lang, ids);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/persons/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = personRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = personRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/persons", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postPerson(
+  public ResponseEntity<byte[]> postPerson(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody PersonMutationPayload payload) {
     InsertResult result = personRepository.insert(lang, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/persons/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putPerson(
+  public ResponseEntity<byte[]> putPerson(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id,
       @Valid @RequestBody PersonMutationPayload payload) {
-    String newPerson = personRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
+    byte[] newPerson = personRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
-    return new ResponseEntity<String>(newPerson, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(newPerson, HttpStatus.OK);
   }
 
   @DeleteMapping(value = "/persons/{id}")
@@ -1,5 +1,6 @@
 package eu.nampi.backend.controller;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -23,6 +24,7 @@ import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.PlaceMutationPayload;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.PlaceRepository;
 
 @RestController
@@ -32,8 +34,8 @@ public class PlaceController extends AbstractRdfController {
   PlaceRepository placeRepository;
 
   @GetMapping(value = "/places", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getPlaces(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getPlaces(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -41,24 +43,35 @@ public class PlaceController extends AbstractRdfController {
       @RequestParam("offset") Optional<Integer> offset,
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
-      @RequestParam("text") Optional<Literal> text) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = placeRepository.findAll(params, lang);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+      @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems) {
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = placeRepository.findAll(params, lang);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/places", params = "id", produces = {"application/ld+json",
+      "text/turtle", "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getPlacesById(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("id") List<UUID> ids) {
+    byte[] result = placeRepository.findMany(lang, ids);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/places/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = placeRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = placeRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/places", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postPlace(
+  public ResponseEntity<byte[]> postPlace(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody PlaceMutationPayload payload) {
     InsertResult result = placeRepository.insert(lang, payload.getTypes(), payload.getLabels(),
@@ -66,19 +79,19 @@ public class PlaceController extends AbstractRdfController {
         Optional.ofNullable(payload.getLatitude()), Optional.ofNullable(payload.getLogitude()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/places/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putPlace(
+  public ResponseEntity<byte[]> putPlace(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id,
       @Valid @RequestBody PlaceMutationPayload payload) {
-    String newPlace = placeRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
+    byte[] newPlace = placeRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()),
         Optional.ofNullable(payload.getLatitude()), Optional.ofNullable(payload.getLogitude()));
-    return new ResponseEntity<String>(newPlace, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(newPlace, HttpStatus.OK);
   }
 
   @DeleteMapping(value = "/places/{id}")
@@ -1,5 +1,6 @@
 package eu.nampi.backend.controller;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.model.SourceMutationPayload;
 import eu.nampi.backend.repository.SourceRepository;
 
@@ -32,8 +34,8 @@ public class SourceController extends AbstractRdfController {
   SourceRepository sourceRepository;
 
   @GetMapping(value = "/sources", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getSources(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getSources(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
@@ -41,42 +43,53 @@ public class SourceController extends AbstractRdfController {
       @RequestParam("offset") Optional<Integer> offset,
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
       @RequestParam("type") Optional<Resource> type,
-      @RequestParam("text") Optional<Literal> text) {
-    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text);
-    String result = sourceRepository.findAll(params, lang);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+      @RequestParam("text") Optional<Literal> text,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems) {
+    QueryParameters params = getParameters(page, pageIndex, limit, offset, orderBy, type, text,
+        totalItems);
+    byte[] result = sourceRepository.findAll(params, lang);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/sources", params = "id", produces = {"application/ld+json",
+      "text/turtle", "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getSourcesById(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("id") List<UUID> ids) {
+    byte[] result = sourceRepository.findMany(lang, ids);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @GetMapping(value = "/sources/{id}", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getEvent(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getEvent(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id) {
-    String result = sourceRepository.findOne(lang, id);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+    byte[] result = sourceRepository.findOne(lang, id);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 
   @PostMapping(value = "/sources", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> postSource(
+  public ResponseEntity<byte[]> postSource(
       @RequestHeader("accept") Lang lang,
       @Valid @RequestBody SourceMutationPayload payload) {
     InsertResult result = sourceRepository.insert(lang, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
     HttpHeaders headers = new HttpHeaders();
     headers.add("Location", result.getEntity().getURI());
-    return new ResponseEntity<String>(result.getResponseBody(), headers, HttpStatus.CREATED);
+    return new ResponseEntity<byte[]>(result.getResponseBody(), headers, HttpStatus.CREATED);
   }
 
   @PutMapping(value = "/sources/{id}", produces = {"application/ld+json", "text/turtle",
       "application/rdf+xml", "application/n-triples"}, consumes = {"application/json"})
-  public ResponseEntity<String> putSource(
+  public ResponseEntity<byte[]> putSource(
       @RequestHeader("accept") Lang lang,
       @PathVariable UUID id,
       @Valid @RequestBody SourceMutationPayload payload) {
-    String newSource = sourceRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
+    byte[] newSource = sourceRepository.update(lang, id, payload.getTypes(), payload.getLabels(),
         asList(payload.getComments()), asList(payload.getTexts()), asList(payload.getSameAs()));
-    return new ResponseEntity<String>(newSource, HttpStatus.OK);
+    return new ResponseEntity<byte[]>(newSource, HttpStatus.OK);
   }
 
   @DeleteMapping(value = "/sources/{id}")
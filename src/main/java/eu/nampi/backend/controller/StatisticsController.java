@@ -0,0 +1,29 @@
+package eu.nampi.backend.controller;
+
+import java.util.Optional;
+import org.apache.jena.riot.Lang;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import eu.nampi.backend.model.Facet;
+import eu.nampi.backend.repository.StatisticsRepository;
+
+@RestController
+public class StatisticsController extends AbstractRdfController {
+
+  @Autowired
+  StatisticsRepository statisticsRepository;
+
+  @GetMapping(value = "/stats", produces = {"application/ld+json", "text/turtle",
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getStatistics(
+      @RequestHeader("accept") Lang lang,
+      @RequestParam("facet") Optional<Facet> facet) {
+    byte[] result = statisticsRepository.get(lang, facet);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
+  }
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import eu.nampi.backend.model.OrderByClauses;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.repository.TypeRepository;
 
 @RestController
@@ -21,19 +22,20 @@ public class TypesController extends AbstractRdfController {
   TypeRepository typeRepository;
 
   @GetMapping(value = "/types", produces = {"application/ld+json", "text/turtle",
-      "application/rdf+xml", "application/n-triples"})
-  public ResponseEntity<String> getTypes(
+      "application/rdf+xml", "application/n-triples", "application/rdf+thrift"})
+  public ResponseEntity<byte[]> getTypes(
       @RequestHeader("accept") Lang lang,
       @RequestParam("page") Optional<Integer> page,
       @RequestParam("pageIndex") Optional<Integer> pageIndex,
       @RequestParam("limit") Optional<Integer> limit,
       @RequestParam("offset") Optional<Integer> offset,
       @RequestParam("orderBy") Optional<OrderByClauses> orderBy,
-      @RequestParam("type") Resource type) {
+      @RequestParam("type") Resource type,
+      @RequestParam("totalItems") Optional<TotalItemsMode> totalItems) {
     QueryParameters params =
         getParameters(page, pageIndex, limit, offset, orderBy, Optional.of(type),
-            Optional.empty());
-    String result = typeRepository.findAll(params, lang);
-    return new ResponseEntity<String>(result, HttpStatus.OK);
+            Optional.empty(), totalItems);
+    byte[] result = typeRepository.findAll(params, lang);
+    return new ResponseEntity<byte[]>(result, HttpStatus.OK);
   }
 }
@@ -19,12 +19,12 @@ public class UserController {
 
   @GetMapping(value = "/users/current",
       produces = {"application/ld+json", "text/turtle", "application/rdf+xml",
-          "application/n-triples"})
+          "application/n-triples", "application/rdf+thrift"})
 
   @Secured("ROLE_USER")
-  public ResponseEntity<String> currentUser(@RequestHeader("accept") Lang lang) {
+  public ResponseEntity<byte[]> currentUser(@RequestHeader("accept") Lang lang) {
     return userRepository.getCurrentUser(lang)
-        .map(result -> new ResponseEntity<String>(result, HttpStatus.OK))
+        .map(result -> new ResponseEntity<byte[]>(result, HttpStatus.OK))
         .orElseThrow(AccessDeniedException::new);
   }
 }
@@ -0,0 +1,20 @@
+package eu.nampi.backend.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import eu.nampi.backend.model.DatesMatchMode;
+
+public class StringToDatesMatchModeConverter implements Converter<String, DatesMatchMode> {
+
+  @Override
+  public DatesMatchMode convert(String source) {
+    switch (source.trim().toLowerCase()) {
+      case "overlap":
+        return DatesMatchMode.OVERLAP;
+      case "contain":
+        return DatesMatchMode.CONTAIN;
+      default:
+        throw new IllegalArgumentException(
+            "Unknown datesMatch mode '" + source + "', use 'overlap' or 'contain'");
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package eu.nampi.backend.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import eu.nampi.backend.model.Facet;
+
+public class StringToFacetConverter implements Converter<String, Facet> {
+
+  @Override
+  public Facet convert(String source) {
+    return Facet
+        .fromName(source.trim().toLowerCase())
+        .orElseThrow(() -> new IllegalArgumentException("Unknown facet '" + source + "'"));
+  }
+}
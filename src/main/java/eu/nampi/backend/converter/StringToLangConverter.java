@@ -16,6 +16,8 @@ public class StringToLangConverter implements Converter<String, Lang> {
         return Lang.RDFXML;
       case "application/n-triples":
         return Lang.NTRIPLES;
+      case "application/rdf+thrift":
+        return Lang.RDFTHRIFT;
       default:
         return Lang.JSONLD;
     }
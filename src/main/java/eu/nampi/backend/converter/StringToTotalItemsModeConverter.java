@@ -0,0 +1,22 @@
+package eu.nampi.backend.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import eu.nampi.backend.model.TotalItemsMode;
+
+public class StringToTotalItemsModeConverter implements Converter<String, TotalItemsMode> {
+
+  @Override
+  public TotalItemsMode convert(String source) {
+    switch (source.trim().toLowerCase()) {
+      case "exact":
+        return TotalItemsMode.EXACT;
+      case "estimate":
+        return TotalItemsMode.ESTIMATE;
+      case "none":
+        return TotalItemsMode.NONE;
+      default:
+        throw new IllegalArgumentException(
+            "Unknown totalItems mode '" + source + "', use 'exact', 'estimate' or 'none'");
+    }
+  }
+}
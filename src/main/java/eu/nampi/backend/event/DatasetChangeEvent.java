@@ -0,0 +1,46 @@
+package eu.nampi.backend.event;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.springframework.context.ApplicationEvent;
+import lombok.Getter;
+
+/**
+ * Published after the datasets have been changed. A reload event signals that the whole inference
+ * cache has been rebuilt, otherwise the concrete triples removed from and added to the data
+ * dataset are provided.
+ */
+@Getter
+public class DatasetChangeEvent extends ApplicationEvent {
+  private static final long serialVersionUID = 83412095L;
+
+  private final boolean reload;
+
+  private final transient Model removed;
+
+  private final transient Model added;
+
+  public DatasetChangeEvent(Object source) {
+    super(source);
+    this.reload = true;
+    this.removed = ModelFactory.createDefaultModel();
+    this.added = ModelFactory.createDefaultModel();
+  }
+
+  public DatasetChangeEvent(Object source, Model removed, Model added) {
+    super(source);
+    this.reload = false;
+    this.removed = removed;
+    this.added = added;
+  }
+
+  public Set<Resource> getSubjects() {
+    Set<Resource> subjects = new HashSet<>();
+    subjects.addAll(removed.listSubjects().filterDrop(Resource::isAnon).toSet());
+    subjects.addAll(added.listSubjects().filterDrop(Resource::isAnon).toSet());
+    return subjects;
+  }
+}
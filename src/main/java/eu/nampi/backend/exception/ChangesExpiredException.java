@@ -0,0 +1,12 @@
+package eu.nampi.backend.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+
+  public ChangesExpiredException() {
+    super();
+  }
+
+  public ChangesExpiredException(String string) {
+    super(string);
+  }
+}
@@ -0,0 +1,10 @@
+package eu.nampi.backend.model;
+
+public enum DatesMatchMode {
+  OVERLAP, CONTAIN;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
@@ -0,0 +1,47 @@
+package eu.nampi.backend.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.jena.sparql.path.Path;
+import org.apache.jena.sparql.path.PathFactory;
+import org.apache.jena.vocabulary.RDF;
+import eu.nampi.backend.vocabulary.Core;
+
+public enum Facet {
+  ASPECT("aspect", PathFactory.pathLink(Core.usesAspect.asNode())),
+  AUTHOR("author", PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()),
+      PathFactory.pathLink(Core.isAuthoredBy.asNode()))),
+  PARTICIPANT("participant", PathFactory.pathLink(Core.hasParticipant.asNode())),
+  PLACE("place", PathFactory.pathLink(Core.takesPlaceAt.asNode())),
+  SOURCE("source", PathFactory.pathSeq(
+      PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()),
+          PathFactory.pathLink(Core.hasSourceLocation.asNode())),
+      PathFactory.pathLink(Core.hasSource.asNode()))),
+  TYPE("type", PathFactory.pathLink(RDF.type.asNode()));
+
+  private final String name;
+
+  private final Path path;
+
+  private Facet(String name, Path path) {
+    this.name = name;
+    this.path = path;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public static Optional<Facet> fromName(String name) {
+    return Arrays.stream(values()).filter(f -> f.name.equals(name)).findFirst();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,24 @@
+package eu.nampi.backend.model;
+
+import java.util.UUID;
+import javax.validation.constraints.NotNull;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportEntry {
+
+  @NotNull
+  private String collection;
+
+  private UUID id;
+
+  @NotNull
+  private JsonNode payload;
+}
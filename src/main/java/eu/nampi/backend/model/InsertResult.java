@@ -18,5 +18,5 @@ public class InsertResult implements Serializable {
   Resource entity;
 
   @NonNull
-  String responseBody;
+  byte[] responseBody;
 }
@@ -3,6 +3,7 @@ package eu.nampi.backend.model;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -10,6 +11,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
@@ -27,6 +29,7 @@ public class ParameterMapper {
   private final Resource collection;
   private final List<String> parts = new ArrayList<>();
   Map<String, String> viewParts = new LinkedHashMap<>();
+  private final Map<String, Object> values = new LinkedHashMap<>();
   private Model model;
   private Resource resSearch = ResourceFactory.createResource();
 
@@ -55,7 +58,10 @@ public class ParameterMapper {
         .map(String::trim)
         .filter(str -> !str.isEmpty())
         .map(str -> URLEncoder.encode(str, Charset.defaultCharset()))
-        .ifPresent(encoded -> viewParts.put(variable, encoded));
+        .ifPresent(encoded -> {
+          viewParts.put(variable, encoded);
+          values.put(variable, value.get());
+        });
     return this;
   }
 
@@ -71,6 +77,10 @@ public class ParameterMapper {
     return this.add(variable, type, Optional.ofNullable(value));
   }
 
+  public Map<String, Object> getValues() {
+    return Collections.unmodifiableMap(values);
+  }
+
   public ParameterMapper insertTemplate() {
     StringBuilder templateBuilder = new StringBuilder(this.baseUrl);
     if (!this.parts.isEmpty()) {
@@ -81,24 +91,33 @@ public class ParameterMapper {
   }
 
   public void insertView(int totalItems) {
-    Resource view = ResourceFactory.createResource(viewIri(totalItems, IriTarget.IRI).get());
+    insertView(target -> replaceOffset(totalItems, target));
+  }
+
+  public void insertView(boolean hasNext) {
+    insertView(target -> replaceOffset(hasNext, target));
+  }
+
+  private void insertView(Function<IriTarget, Optional<String>> offsets) {
+    Resource view = ResourceFactory.createResource(viewIri(offsets, IriTarget.IRI).get());
     this.model
         .add(this.collection, Hydra.view, view)
         .add(view, RDF.type, Hydra.PartialCollectionView);
-    viewIri(totalItems, IriTarget.FIRST).map(ResourceFactory::createResource)
+    viewIri(offsets, IriTarget.FIRST).map(ResourceFactory::createResource)
         .ifPresent(first -> this.model.add(view, Hydra.first, first));
-    viewIri(totalItems, IriTarget.LAST).map(ResourceFactory::createResource)
+    viewIri(offsets, IriTarget.LAST).map(ResourceFactory::createResource)
         .ifPresent(last -> this.model.add(view, Hydra.last, last));
-    viewIri(totalItems, IriTarget.NEXT).map(ResourceFactory::createResource)
+    viewIri(offsets, IriTarget.NEXT).map(ResourceFactory::createResource)
         .ifPresent(next -> this.model.add(view, Hydra.next, next));
-    viewIri(totalItems, IriTarget.PREVIOUS).map(ResourceFactory::createResource)
+    viewIri(offsets, IriTarget.PREVIOUS).map(ResourceFactory::createResource)
         .ifPresent(previous -> this.model.add(view, Hydra.previous, previous));
   }
 
-  private Optional<String> viewIri(int totalItems, IriTarget target) {
+  private Optional<String> viewIri(Function<IriTarget, Optional<String>> offsets,
+      IriTarget target) {
     Map<String, String> map = copy(viewParts);
     if (target != IriTarget.IRI) {
-      Optional<String> newOffset = replaceOffset(totalItems, target);
+      Optional<String> newOffset = offsets.apply(target);
       if (newOffset.isEmpty()) {
         return Optional.empty();
       }
@@ -112,6 +131,19 @@ public class ParameterMapper {
     return Optional.of(viewStringBuilder.toString());
   }
 
+  private Optional<String> replaceOffset(boolean hasNext, IriTarget target) {
+    int offset = Optional.ofNullable(viewParts.get("offset")).map(Integer::valueOf).orElse(0);
+    int limit = Optional.ofNullable(viewParts.get("limit")).map(Integer::valueOf).orElse(25);
+    if (target == IriTarget.FIRST && offset > 0) {
+      return Optional.of("0");
+    } else if (target == IriTarget.NEXT && hasNext) {
+      return Optional.of(String.valueOf(offset + limit));
+    } else if (target == IriTarget.PREVIOUS && offset > 0) {
+      return Optional.of(String.valueOf(Math.max(offset - limit, 0)));
+    }
+    return Optional.empty();
+  }
+
   private Optional<String> replaceOffset(int totalItems, IriTarget target) {
     int offset = Optional.ofNullable(viewParts.get("offset")).map(Integer::valueOf).orElse(0);
     int limit = Optional.ofNullable(viewParts.get("limit")).map(Integer::valueOf).orElse(25);
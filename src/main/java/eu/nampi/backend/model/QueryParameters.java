@@ -2,6 +2,7 @@ package eu.nampi.backend.model;
 
 import java.io.Serializable;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Resource;
 import lombok.AllArgsConstructor;
@@ -29,4 +30,8 @@ public class QueryParameters implements Serializable {
   private Optional<Resource> type;
 
   private Optional<Literal> text;
+
+  private TotalItemsMode totalItems;
+
+  private Optional<Set<String>> fields;
 }
@@ -0,0 +1,10 @@
+package eu.nampi.backend.model;
+
+public enum TotalItemsMode {
+  EXACT, ESTIMATE, NONE;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
@@ -54,12 +54,12 @@ public abstract class AbstractHydraQueryBuilder extends AbstractHydraBuilder {
 
   abstract void build(BiFunction<Model, QuerySolution, RDFNode> rowToNode);
 
-  public String query(BiFunction<Model, QuerySolution, RDFNode> rowToNode, Lang lang) {
+  public byte[] query(BiFunction<Model, QuerySolution, RDFNode> rowToNode, Lang lang) {
     build(rowToNode);
     return serializer.serialize(model, lang, root);
   }
 
-  public String query(BiFunction<Model, QuerySolution, RDFNode> rowToNode, Lang lang,
+  public byte[] query(BiFunction<Model, QuerySolution, RDFNode> rowToNode, Lang lang,
       Resource customRoot) {
     build(rowToNode);
     return serializer.serialize(model, lang, customRoot);
@@ -3,18 +3,27 @@ package eu.nampi.backend.queryBuilder;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.update.Update;
 import eu.nampi.backend.repository.HierarchyRepository;
 import eu.nampi.backend.repository.TypeRepository;
 import eu.nampi.backend.service.JenaService;
 
 public abstract class AbstractHydraUpdateBuilder extends AbstractHydraBuilder {
 
-  private HierarchyRepository hierarchyRepository;
+  protected HierarchyRepository hierarchyRepository;
 
   private TypeRepository typeRepository;
 
@@ -31,8 +40,31 @@ public abstract class AbstractHydraUpdateBuilder extends AbstractHydraBuilder {
     this.ef = updateBuilder.getExprFactory();
   }
 
-  public void build() {
-    jenaService.update(updateBuilder);
+  /**
+   * Executes the update and returns whether it changed any triples.
+   */
+  public boolean build() {
+    return jenaService.update(updateBuilder);
+  }
+
+  /**
+   * The concrete triples the update inserts. Triples that depend on the where clause of the
+   * update are not included.
+   */
+  public Model inserted() {
+    Graph graph = GraphFactory.createDefaultGraph();
+    for (Update update : updateBuilder.buildRequest().getOperations()) {
+      List<Quad> quads = update instanceof UpdateDataInsert
+          ? ((UpdateDataInsert) update).getQuads()
+          : update instanceof UpdateModify ? ((UpdateModify) update).getInsertQuads()
+              : List.of();
+      quads
+          .stream()
+          .map(Quad::asTriple)
+          .filter(Triple::isConcrete)
+          .forEach(graph::add);
+    }
+    return ModelFactory.createModelForGraph(graph);
   }
 
   public void validateSubnode(RDFNode parent, RDFNode child) {
@@ -0,0 +1,63 @@
+package eu.nampi.backend.queryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Hydra;
+
+/**
+ * Builds a Hydra collection of explicitly requested resources. Resources with an already cached
+ * model are added from it, all others are fetched with a single query.
+ */
+public class HydraBatchBuilder extends AbstractHydraQueryBuilder {
+
+  private Map<Resource, Optional<Model>> members;
+
+  public HydraBatchBuilder(JenaService jenaService, Serializer serializer, String baseUri,
+      Resource mainType, Map<Resource, Optional<Model>> members, String crmPrefix) {
+    super(jenaService, serializer, baseUri, mainType, crmPrefix);
+    this.members = members;
+    coreData
+        .addWhere(VAR_MAIN, RDF.type, VAR_TYPE)
+        .addWhere(VAR_TYPE, Api.displayable, true)
+        .addOptional(VAR_MAIN, RDFS.label, VAR_LABEL)
+        .addOptional(VAR_MAIN, RDFS.comment, VAR_COMMENT);
+  }
+
+  @Override
+  void build(BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
+    this.model.add(root, RDF.type, Hydra.Collection);
+    List<Resource> misses = new ArrayList<>();
+    members.forEach((member, cached) -> cached.ifPresentOrElse(cachedModel -> this.model
+        .add(cachedModel)
+        .add(root, Hydra.member, member), () -> misses.add(member)));
+    if (!misses.isEmpty()) {
+      // Binding the values in a sub query places them before all other patterns of the query
+      SelectBuilder select = new SelectBuilder()
+          .addVar("*")
+          .addSubQuery(new SelectBuilder()
+              .addVar(VAR_MAIN)
+              .addWhereValueVar(VAR_MAIN, misses.toArray()))
+          .addWhere(coreData);
+      jenaService.select(select,
+          row -> this.model.add(root, Hydra.member, rowToNode.apply(this.model, row)));
+    }
+    int totalItems = this.model.listObjectsOfProperty(root, Hydra.member).toList().size();
+    this.model.addLiteral(root, Hydra.totalItems,
+        ResourceFactory.createTypedLiteral(String.valueOf(totalItems), XSDDatatype.XSDinteger));
+  }
+}
@@ -1,31 +1,51 @@
 package eu.nampi.backend.queryBuilder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import eu.nampi.backend.model.QueryParameters;
 import eu.nampi.backend.repository.HierarchyRepository;
 import eu.nampi.backend.repository.TypeRepository;
+import eu.nampi.backend.service.CacheService;
 import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.service.StatisticsService;
 import eu.nampi.backend.util.Serializer;
 import eu.nampi.backend.util.UrlBuilder;
 
 @Component
 public class HydraBuilderFactory {
 
+  private static final int MAX_BATCH_SIZE = 100;
+
   @Autowired
   Serializer serializer;
 
+  @Autowired
+  CacheService cacheService;
+
   @Autowired
   JenaService jenaService;
 
+  @Autowired
+  StatisticsService statisticsService;
+
+  @Autowired
+  TaskExecutor taskExecutor;
+
   @Autowired
   UrlBuilder urlBuilder;
 
@@ -46,8 +66,9 @@ public class HydraBuilderFactory {
   public HydraCollectionBuilder collectionBuilder(String endpointName, Resource mainType,
       Resource orderByVar, QueryParameters params, boolean includeTextFilter,
       boolean includeTypeAndText) {
-    return new HydraCollectionBuilder(jenaService, serializer, urlBuilder.endpointUri(endpointName),
-        mainType, orderByVar, params, includeTextFilter, includeTypeAndText, crmPrefix);
+    return new HydraCollectionBuilder(jenaService, statisticsService, taskExecutor, serializer,
+        urlBuilder.endpointUri(endpointName), mainType, orderByVar, params, includeTextFilter,
+        includeTypeAndText, crmPrefix);
   }
 
   public HydraCollectionBuilder collectionBuilder(String endpointName, Resource mainType,
@@ -84,6 +105,39 @@ public class HydraBuilderFactory {
     return new HydraSingleBuilder(jenaService, serializer, iri, mainType, filterBasic, crmPrefix);
   }
 
+  /**
+   * Hydra Batch Builders
+   */
+
+  public HydraBatchBuilder batchBuilder(String endpointName, Resource mainType, Lang lang,
+      List<UUID> ids) {
+    if (ids.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "No more than " + MAX_BATCH_SIZE + " ids can be requested at once");
+    }
+    Map<Resource, Optional<Model>> members = new LinkedHashMap<>();
+    ids.stream().distinct().forEach(id -> members.put(
+        ResourceFactory.createResource(urlBuilder.endpointUri(endpointName, id)),
+        cachedMember(endpointName, lang, id)));
+    return new HydraBatchBuilder(jenaService, serializer, urlBuilder.endpointUri(endpointName),
+        mainType, members, crmPrefix);
+  }
+
+  private Optional<Model> cachedMember(String endpointName, Lang lang, UUID id) {
+    // The entries cached by findOne are stored under the endpoint name with the language and id.
+    // Parsing cached JSON-LD takes longer than querying the member again, so JSON-LD entries are
+    // skipped and only the parse-free Thrift entries are used for JSON-LD batches.
+    return Stream
+        .of(Lang.RDFTHRIFT, lang)
+        .distinct()
+        .filter(cachedLang -> !Lang.JSONLD.equals(cachedLang))
+        .flatMap(cachedLang -> cacheService
+            .get(endpointName, Arrays.asList(cachedLang, id))
+            .map(body -> serializer.deserialize(body, cachedLang))
+            .stream())
+        .findFirst();
+  }
+
   /**
    * Hydra Insert Builders
    */
@@ -126,6 +180,24 @@ public class HydraBuilderFactory {
         Optional.of(sameAs), id);
   }
 
+  /**
+   * Hydra Write Result Builders
+   */
+
+  public HydraWriteResultBuilder writeResultBuilder(Resource mainType,
+      AbstractHydraUpdateBuilder... builders) {
+    return new HydraWriteResultBuilder(jenaService, serializer, builders[0].root.getURI(),
+        mainType, Arrays.asList(builders), crmPrefix);
+  }
+
+  /**
+   * Validation Batches
+   */
+
+  public ValidationBatch validationBatch() {
+    return new ValidationBatch(jenaService);
+  }
+
   /**
    * Hydra Delete Builders
    */
@@ -1,36 +1,70 @@
 package eu.nampi.backend.queryBuilder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.lang.sparql_11.ParseException;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
+import eu.nampi.backend.model.Facet;
 import eu.nampi.backend.model.ParameterMapper;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
 import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.service.StatisticsService;
 import eu.nampi.backend.util.Serializer;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Hydra;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 public class HydraCollectionBuilder extends AbstractHydraQueryBuilder {
+  private static final Set<String> PAGING_VARIABLES =
+      Set.of("fields", "limit", "offset", "orderBy", "pageIndex", "totalItems");
+
+  private StatisticsService statistics;
+  private Executor executor;
+  private Map<String, Hydration> hydrations = new LinkedHashMap<>();
+  private Optional<List<Resource>> candidates = Optional.empty();
+  private Optional<Map<String, Facet>> statisticsFacets = Optional.empty();
   private Resource orderByVar;
   private boolean includeTypeAndText;
   protected QueryParameters params;
   public ParameterMapper mapper;
   public WhereBuilder extendedData = new WhereBuilder();
 
-  public HydraCollectionBuilder(JenaService jenaService, Serializer serializer, String baseUri,
-      Resource mainType, Resource orderByVar, QueryParameters params, boolean includeTextFilter,
+  public HydraCollectionBuilder(JenaService jenaService, StatisticsService statistics,
+      Executor executor, Serializer serializer, String baseUri, Resource mainType,
+      Resource orderByVar, QueryParameters params, boolean includeTextFilter,
       boolean includeTypeAndText, String crmPrefix) {
     super(jenaService, serializer, baseUri, mainType, crmPrefix);
+    this.statistics = statistics;
+    this.executor = executor;
     this.mapper = new ParameterMapper(baseUri, root, model);
     this.orderByVar = orderByVar;
     this.params = params;
@@ -64,39 +98,250 @@ public class HydraCollectionBuilder extends AbstractHydraQueryBuilder {
     });
   }
 
+  /**
+   * Allows the total number of items to be taken from the maintained statistics as long as the
+   * core data only requires the main type. The counts of the provided facets are upper bounds of the
+   * filtered members and are only used to estimate the total number of items.
+   */
+  public HydraCollectionBuilder useStatistics(Facet... facets) {
+    this.statisticsFacets = Optional.of(
+        Arrays.stream(facets).collect(Collectors.toMap(Facet::getName, Function.identity())));
+    return this;
+  }
+
+  /**
+   * Restricts the members to the provided candidates. The candidates are bound before the core data
+   * is matched.
+   */
+  public HydraCollectionBuilder restrictMembers(List<Resource> candidates) {
+    this.candidates = Optional.of(candidates);
+    return this;
+  }
+
+  /**
+   * Adds a named block of data that is queried separately for the members of the current page. All
+   * blocks are queried in parallel to the extended data, which avoids the cartesian product of
+   * independent optional patterns in a single query.
+   */
+  public HydraCollectionBuilder addHydration(String name, WhereBuilder where,
+      BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
+    this.hydrations.put(name, new Hydration(where, rowToNode));
+    return this;
+  }
+
   @Override
   public void build(BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
-    // Count all possible matches
-    int totalItems = jenaService.count(coreData, VAR_MAIN);
+    TotalItemsMode mode = params.getTotalItems();
+    params.getFields().ifPresent(fields -> fields
+        .stream()
+        .filter(field -> !hydrations.containsKey(field))
+        .findAny()
+        .ifPresent(field -> {
+          throw new IllegalArgumentException("Unknown field '" + field + "', available fields are "
+              + String.join(", ", hydrations.keySet()));
+        }));
 
-    // Finalize the core select
+    // Finalize the core select, fetch one more row than requested when the total is not counted
+    // exactly to find out if there is a next page
     SelectBuilder coreSelect =
-        new SelectBuilder().setDistinct(true).addVar(VAR_MAIN).addWhere(coreData);
-
+        new SelectBuilder().setDistinct(true).addVar(VAR_MAIN).addWhere(coreWhere());
     this.params.getOrderByClauses().appendAllTo(coreSelect);
-    coreSelect.addOrderBy(VAR_MAIN).setOffset(params.getOffset()).setLimit(params.getLimit());
-
-    SelectBuilder finalSelect = new SelectBuilder().addSubQuery(coreSelect).addWhere(extendedData);
+    int limit = params.getLimit();
+    coreSelect
+        .addOrderBy(VAR_MAIN)
+        .setOffset(params.getOffset())
+        .setLimit(mode == TotalItemsMode.EXACT ? limit : limit + 1);
 
     // Setup the root hydra collection
-    this.model.add(this.root, RDF.type, Hydra.Collection).addLiteral(root, Hydra.totalItems,
-        ResourceFactory.createTypedLiteral(String.valueOf(totalItems), XSDDatatype.XSDinteger));
-
-    // Query the data using the jena service and add the content provided by the row
-    // mapper function
-    // to the model
-    jenaService.select(finalSelect,
-        row -> this.model.add(root, Hydra.member, rowToNode.apply(this.model, row)));
+    this.model.add(this.root, RDF.type, Hydra.Collection);
 
     // Set up the search and view nodes with the main query parameters
-    this.mapper.add("limit", Hydra.limit, params.getLimit())
+    this.mapper.add("limit", Hydra.limit, limit)
         .add("offset", Hydra.offset, params.getOffset())
         .add("orderBy", orderByVar, params.getOrderByClauses().toQueryString())
         .add("pageIndex", Hydra.pageIndex, Optional.empty())
+        .add("totalItems", Api.totalItemsProp,
+            Optional.of(mode).filter(m -> m != TotalItemsMode.EXACT))
         .add("type", RDF.type, params.getType());
     if (includeTypeAndText) {
       this.mapper.add("text", Api.textProp, params.getText());
     }
-    this.mapper.insertTemplate().insertView(totalItems);
+    if (!hydrations.isEmpty()) {
+      this.mapper.add("fields", Api.fieldsProp,
+          params.getFields().map(fields -> String.join(",", fields)));
+    }
+    this.mapper.insertTemplate();
+
+    if (mode == TotalItemsMode.EXACT) {
+      // Count all possible matches
+      int totalItems =
+          statisticsCount().orElseGet(() -> jenaService.count(coreWhere(), VAR_MAIN));
+      addTotalItems(totalItems);
+      if (hydrations.isEmpty()) {
+        // Query the data using the jena service and add the content provided by the row mapper
+        // function to the model
+        SelectBuilder finalSelect =
+            new SelectBuilder().addSubQuery(coreSelect).addWhere(extendedData);
+        jenaService.select(finalSelect,
+            row -> this.model.add(root, Hydra.member, rowToNode.apply(this.model, row)));
+      } else {
+        List<Resource> members = new ArrayList<>();
+        jenaService.select(coreSelect, row -> members.add(row.getResource(VAR_MAIN.getName())));
+        hydrate(members, rowToNode);
+      }
+      this.mapper.insertView(totalItems);
+    } else {
+      // Fetch the page first and only query the data for the members that are actually returned
+      List<Resource> page = new ArrayList<>();
+      jenaService.select(coreSelect, row -> page.add(row.getResource(VAR_MAIN.getName())));
+      boolean hasNext = page.size() > limit;
+      List<Resource> members = hasNext ? page.subList(0, limit) : page;
+      hydrate(members, rowToNode);
+      if (mode == TotalItemsMode.ESTIMATE) {
+        int estimate = statisticsCount().orElseGet(this::estimateTotalItems);
+        addTotalItems(Math.max(estimate, params.getOffset() + members.size()));
+      }
+      this.mapper.insertView(hasNext);
+    }
+  }
+
+  /**
+   * Counts the members matching the core data per value of each of the provided facets. All facets
+   * are counted in a single grouped query.
+   */
+  public Map<Facet, Map<Resource, Integer>> countFacets(List<Facet> facets) {
+    Node varCount = NodeFactory.createVariable("count");
+    Node varFacet = NodeFactory.createVariable("facet");
+    Node varValue = NodeFactory.createVariable("value");
+    Map<Facet, Map<Resource, Integer>> counts = new EnumMap<>(Facet.class);
+    WhereBuilder facetUnion = new WhereBuilder();
+    for (Facet facet : facets) {
+      counts.put(facet, new HashMap<>());
+      facetUnion.addUnion(new WhereBuilder()
+          .addWhere(VAR_MAIN, facet.getPath(), varValue)
+          .addBind(ef.asExpr(ResourceFactory.createPlainLiteral(facet.getName())), varFacet));
+    }
+    if (facets.isEmpty()) {
+      return counts;
+    }
+    SelectBuilder select = new SelectBuilder().addVar(varFacet).addVar(varValue);
+    try {
+      select.addVar("count(distinct " + VAR_MAIN + ")", varCount);
+    } catch (ParseException e) {
+      throw new IllegalStateException(e);
+    }
+    select
+        .addWhere(coreWhere())
+        .addWhere(facetUnion)
+        .addFilter(ef.isIRI(varValue))
+        .addGroupBy(varFacet)
+        .addGroupBy(varValue);
+    jenaService.select(select, row -> Facet
+        .fromName(row.getLiteral(varFacet.getName()).getString())
+        .ifPresent(facet -> counts.get(facet).put(row.getResource(varValue.getName()),
+            row.getLiteral(varCount.getName()).getInt())));
+    return counts;
+  }
+
+  private void hydrate(List<Resource> members,
+      BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
+    if (members.isEmpty()) {
+      return;
+    }
+    List<Hydration> blocks = new ArrayList<>();
+    blocks.add(new Hydration(extendedData, (model, row) -> {
+      RDFNode member = rowToNode.apply(model, row);
+      model.add(root, Hydra.member, member);
+      return member;
+    }));
+    // Only the blocks named in the fields parameter are queried if it is provided
+    Set<String> fields = params.getFields().orElse(hydrations.keySet());
+    hydrations
+        .entrySet()
+        .stream()
+        .filter(e -> fields.contains(e.getKey()))
+        .forEach(e -> blocks.add(e.getValue()));
+    // The rows are collected in parallel but added to the model on the current thread only
+    List<CompletableFuture<List<QuerySolution>>> results = blocks
+        .stream()
+        .map(block -> CompletableFuture.supplyAsync(() -> {
+          List<QuerySolution> rows = new ArrayList<>();
+          SelectBuilder select = new SelectBuilder()
+              .addSubQuery(valuesSelect(members))
+              .addWhere(block.getWhere());
+          jenaService.select(select, rows::add);
+          return rows;
+        }, executor))
+        .collect(Collectors.toList());
+    for (int i = 0; i < blocks.size(); i++) {
+      BiFunction<Model, QuerySolution, RDFNode> blockMapper = blocks.get(i).getRowToNode();
+      try {
+        results.get(i).join().forEach(row -> blockMapper.apply(this.model, row));
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
+    }
+  }
+
+  private WhereBuilder coreWhere() {
+    return candidates
+        .map(resources -> new WhereBuilder()
+            .addSubQuery(valuesSelect(resources))
+            .addWhere(coreData))
+        .orElse(coreData);
+  }
+
+  // Binding the values in a sub query places them before all other patterns of the query
+  private SelectBuilder valuesSelect(List<Resource> resources) {
+    return new SelectBuilder().addVar(VAR_MAIN).addWhereValueVar(VAR_MAIN, resources.toArray());
+  }
+
+  private void addTotalItems(int totalItems) {
+    this.model.addLiteral(root, Hydra.totalItems,
+        ResourceFactory.createTypedLiteral(String.valueOf(totalItems), XSDDatatype.XSDinteger));
+  }
+
+  private Map<String, Object> filters() {
+    return mapper
+        .getValues()
+        .entrySet()
+        .stream()
+        .filter(e -> !PAGING_VARIABLES.contains(e.getKey()))
+        .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+  }
+
+  private Optional<Integer> statisticsCount() {
+    return statisticsFacets
+        .filter(facets -> filters().isEmpty() && candidates.isEmpty() && onlyTyped())
+        .flatMap(facets -> statistics.count(mainType));
+  }
+
+  // Patterns like the label required to order by it aren't always reflected in the filters
+  private boolean onlyTyped() {
+    return coreData.toString()
+        .equals(new WhereBuilder().addWhere(VAR_MAIN, RDF.type, mainType).toString());
+  }
+
+  private int estimateTotalItems() {
+    // The smallest count of the main type and of the facets filtered by is an upper bound
+    Map<String, Facet> facets = statisticsFacets.orElse(Map.of());
+    Stream<Optional<Integer>> facetCounts = filters()
+        .entrySet()
+        .stream()
+        .filter(e -> facets.containsKey(e.getKey()) && e.getValue() instanceof Resource)
+        .map(e -> statistics.count(facets.get(e.getKey()), (Resource) e.getValue()));
+    return Stream
+        .concat(Stream.of(statistics.count(mainType)), facetCounts)
+        .flatMap(Optional::stream)
+        .min(Integer::compare)
+        .orElseGet(() -> jenaService.count(
+            new WhereBuilder().addWhere(VAR_MAIN, RDF.type, mainType), VAR_MAIN));
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class Hydration {
+    private WhereBuilder where;
+    private BiFunction<Model, QuerySolution, RDFNode> rowToNode;
   }
 }
@@ -1,7 +1,19 @@
 package eu.nampi.backend.queryBuilder;
 
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.expr.Expr;
 import eu.nampi.backend.repository.HierarchyRepository;
 import eu.nampi.backend.repository.TypeRepository;
 import eu.nampi.backend.service.JenaService;
@@ -10,11 +22,79 @@ public class HydraDeleteBuilder extends AbstractHydraUpdateBuilder {
 
   public UUID id;
 
+  private Optional<Expr> guard = Optional.empty();
+
+  private boolean referenced = false;
+
   public HydraDeleteBuilder(JenaService jenaService, HierarchyRepository hierarchyRepository,
       TypeRepository typeRepository, String baseUri, Resource mainType, UUID id) {
     super(jenaService, hierarchyRepository, typeRepository, baseUri);
     this.id = id;
-    updateBuilder
+    deleteAll(updateBuilder);
+  }
+
+  /**
+   * Only deletes the entity if no resource refers to it with one of the properties or their
+   * subproperties. The check is part of the update so it also holds for concurrent writes. The
+   * subproperties are listed explicitly because the data dataset contains no inferred triples.
+   */
+  public HydraDeleteBuilder unlessReferencedBy(Property... properties) {
+    Node varReferrer = NodeFactory.createVariable("referrer");
+    Node varProperty = NodeFactory.createVariable("referringProperty");
+    Object[] referring = Arrays
+        .stream(properties)
+        .flatMap(property -> hierarchyRepository.findDescendants(property).stream())
+        .distinct()
+        .toArray();
+    guard = Optional.of(ef.notexists(new WhereBuilder()
+        .addWhere(varReferrer, varProperty, root)
+        .addFilter(ef.in(varProperty, referring))));
+    return this;
+  }
+
+  /**
+   * Whether the last guarded build found the entity but didn't delete it because it is still
+   * referenced.
+   */
+  public boolean isReferenced() {
+    return referenced;
+  }
+
+  /**
+   * Deletes the entity. With a guard, the statements of the entity and the outcome of the guard
+   * are selected from the data first. The update only runs if there is something to delete, and
+   * it keeps the guard in case the entity is referenced in the meantime.
+   */
+  @Override
+  public boolean build() {
+    if (guard.isEmpty()) {
+      return super.build();
+    }
+    Node varDeletable = NodeFactory.createVariable("deletable");
+    Model removed = ModelFactory.createDefaultModel();
+    AtomicBoolean deletable = new AtomicBoolean(false);
+    SelectBuilder state = new SelectBuilder()
+        .addVar(VAR_PREDICATE)
+        .addVar(VAR_OBJECT)
+        .addVar(varDeletable)
+        .addWhere(root, VAR_PREDICATE, VAR_OBJECT)
+        .addBind(guard.get(), varDeletable);
+    jenaService.selectData(state.build(), row -> {
+      removed.add(root, removed.createProperty(row.getResource(VAR_PREDICATE.getName()).getURI()),
+          row.get(VAR_OBJECT.getName()));
+      deletable.set(row.getLiteral(varDeletable.getName()).getBoolean());
+    });
+    referenced = !removed.isEmpty() && !deletable.get();
+    if (removed.isEmpty() || referenced) {
+      return false;
+    }
+    updateBuilder.addFilter(guard.get());
+    jenaService.update(updateBuilder.buildRequest(), removed, ModelFactory.createDefaultModel());
+    return true;
+  }
+
+  private UpdateBuilder deleteAll(UpdateBuilder builder) {
+    return builder
         .addFilter(ef.sameTerm(VAR_MAIN, root))
         .addWhere(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT)
         .addDelete(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT);
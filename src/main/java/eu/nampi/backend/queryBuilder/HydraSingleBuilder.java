@@ -1,41 +1,65 @@
 package eu.nampi.backend.queryBuilder;
 
+import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.riot.Lang;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import eu.nampi.backend.service.JenaService;
 import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.vocabulary.Api;
 
 public class HydraSingleBuilder extends AbstractHydraQueryBuilder {
 
+  // The slot the root resource is bound to when the query is executed
+  private static final Node VAR_ROOT = NodeFactory.createVariable("root");
+
   public HydraSingleBuilder(JenaService jenaService, Serializer serializer, String baseUri,
       Resource mainType, boolean filterBasic, String crmPrefix) {
     super(jenaService, serializer, baseUri, mainType, crmPrefix);
     coreData
-        .addFilter(ef.sameTerm(VAR_MAIN, root))
+        .addFilter(ef.sameTerm(VAR_MAIN, VAR_ROOT))
         .addWhere(VAR_MAIN, RDF.type, VAR_TYPE);
     if (filterBasic) {
       coreData
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_TYPE), RDF.getURI())));
+          .addWhere(VAR_TYPE, Api.displayable, true);
     }
     coreData
         .addOptional(VAR_MAIN, RDFS.label, VAR_LABEL)
         .addOptional(VAR_MAIN, RDFS.comment, VAR_COMMENT);
   }
 
+  /**
+   * Queries the data using a template that is shared by all queries for the same kind of resource.
+   * The additional data is only added to the core data when the template is compiled.
+   */
+  public byte[] query(QueryTemplate template, Consumer<WhereBuilder> data,
+      BiFunction<Model, QuerySolution, RDFNode> rowToNode, Lang lang) {
+    select(template, data, rowToNode);
+    return serializer.serialize(model, lang, root);
+  }
+
   @Override
   public void build(BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
-    SelectBuilder core = new SelectBuilder()
-        .addVar("*")
-        .addWhere(coreData);
-    jenaService.select(core, row -> rowToNode.apply(this.model, row));
+    select(new QueryTemplate(), where -> {}, rowToNode);
+  }
+
+  private void select(QueryTemplate template, Consumer<WhereBuilder> data,
+      BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
+    jenaService.select(template.bind(() -> {
+      data.accept(coreData);
+      return new SelectBuilder()
+          .addVar("*")
+          .addWhere(coreData);
+    }, Map.of(VAR_ROOT, root)), row -> rowToNode.apply(this.model, row));
   }
 }
@@ -0,0 +1,69 @@
+package eu.nampi.backend.queryBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.vocabulary.Api;
+
+/**
+ * Builds the response of a write from the triples the update builders insert, so the written
+ * entity doesn't need to be queried again. Only the displayable types and the labels of the entity
+ * and of the resources it refers to are looked up because they are inferred or belong to other
+ * entities.
+ */
+public class HydraWriteResultBuilder extends AbstractHydraQueryBuilder {
+
+  private List<AbstractHydraUpdateBuilder> builders;
+
+  public HydraWriteResultBuilder(JenaService jenaService, Serializer serializer, String baseUri,
+      Resource mainType, List<AbstractHydraUpdateBuilder> builders, String crmPrefix) {
+    super(jenaService, serializer, baseUri, mainType, crmPrefix);
+    this.builders = builders;
+  }
+
+  public byte[] query(Lang lang) {
+    return query((model, row) -> row.getResource(VAR_MAIN.getName()), lang);
+  }
+
+  @Override
+  void build(BiFunction<Model, QuerySolution, RDFNode> rowToNode) {
+    builders.forEach(builder -> this.model.add(builder.inserted()));
+    // The materialized helper properties are not part of any response
+    this.model.listStatements()
+        .filterKeep(stmt -> stmt.getPredicate().getURI().startsWith(Api.getURI()))
+        .toList()
+        .forEach(this.model::remove);
+    Set<Resource> resources = new LinkedHashSet<>();
+    resources.add(root);
+    this.model.listObjects()
+        .filterKeep(RDFNode::isURIResource)
+        .forEachRemaining(object -> resources.add(object.asResource()));
+    // Binding the values in a sub query places them before all other patterns of the query
+    SelectBuilder select = new SelectBuilder()
+        .addVar("*")
+        .addSubQuery(new SelectBuilder()
+            .addVar(VAR_MAIN)
+            .addWhereValueVar(VAR_MAIN, resources.toArray()))
+        .addWhere(new WhereBuilder()
+            .addWhere(VAR_MAIN, RDF.type, VAR_TYPE)
+            .addWhere(VAR_TYPE, Api.displayable, true)
+            .addUnion(new WhereBuilder().addWhere(VAR_MAIN, RDFS.label, VAR_LABEL)));
+    jenaService.select(select, row -> {
+      Resource main = rowToNode.apply(this.model, row).asResource();
+      get(row, VAR_TYPE).ifPresent(type -> this.model.add(main, RDF.type, type));
+      get(row, VAR_LABEL).ifPresent(label -> this.model.add(main, RDFS.label, label));
+    });
+  }
+}
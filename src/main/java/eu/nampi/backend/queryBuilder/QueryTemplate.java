@@ -0,0 +1,40 @@
+package eu.nampi.backend.queryBuilder;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.jena.arq.querybuilder.AbstractQueryBuilder;
+import org.apache.jena.arq.querybuilder.Converters;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+/**
+ * A query shape that is only built once. Afterwards each execution only replaces the slot
+ * variables of the compiled query with the bound values. Only fixed shapes like single resource
+ * lookups can be templated, the shape of collection queries depends on the filters, the order and
+ * the candidates of each request.
+ */
+public class QueryTemplate {
+
+  private Query query;
+
+  public Query bind(Supplier<? extends AbstractQueryBuilder<?>> shape, Map<Node, ?> values) {
+    Map<Var, Node> bindings = values
+        .entrySet()
+        .stream()
+        .collect(Collectors.toMap(
+            e -> Var.alloc(e.getKey()),
+            e -> Converters.makeNode(e.getValue(), PrefixMapping.Standard)));
+    return QueryTransformOps.transform(compile(shape), bindings);
+  }
+
+  private synchronized Query compile(Supplier<? extends AbstractQueryBuilder<?>> shape) {
+    if (query == null) {
+      query = shape.get().build();
+    }
+    return query;
+  }
+}
@@ -0,0 +1,197 @@
+package eu.nampi.backend.queryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import eu.nampi.backend.service.JenaService;
+import lombok.AllArgsConstructor;
+
+/**
+ * Collects the type and hierarchy checks of one or more payloads and runs them with as few queries
+ * as possible instead of one ask query per check. Resources that are only created together with
+ * the checked payloads can be declared with their types so checks against them are resolved
+ * through the hierarchy of the declared types. Resources that are about to be created can be
+ * required to not exist yet.
+ */
+public class ValidationBatch {
+
+  private static final int SLICE_SIZE = 200;
+  private static final Node VAR_CHILD = NodeFactory.createVariable("child");
+  private static final Node VAR_OBJECT = NodeFactory.createVariable("object");
+  private static final Node VAR_PARENT = NodeFactory.createVariable("parent");
+  private static final Node VAR_PREDICATE = NodeFactory.createVariable("predicate");
+
+  private JenaService jenaService;
+
+  private List<Check> checks = new ArrayList<>();
+
+  private Map<String, List<Resource>> declared = new HashMap<>();
+
+  private Map<Resource, String> absent = new LinkedHashMap<>();
+
+  private String context = "";
+
+  @AllArgsConstructor
+  private static class Check {
+    boolean type;
+    boolean expected;
+    RDFNode parent;
+    RDFNode child;
+    String message;
+  }
+
+  public ValidationBatch(JenaService jenaService) {
+    this.jenaService = jenaService;
+  }
+
+  /**
+   * Sets a prefix for the messages of all checks added afterwards, for instance the position of
+   * the payload in a batch.
+   */
+  public ValidationBatch context(String context) {
+    this.context = context;
+    return this;
+  }
+
+  public ValidationBatch declare(Resource node, List<Resource> types) {
+    declared.computeIfAbsent(node.toString(), k -> new ArrayList<>()).addAll(types);
+    return this;
+  }
+
+  public ValidationBatch requireSubnode(RDFNode parent, RDFNode child) {
+    checks.add(new Check(false, true, parent, child,
+        context + String.format("'%s' is not a subtype of '%s'.", child.toString(),
+            parent.toString())));
+    return this;
+  }
+
+  public ValidationBatch requireSubresources(RDFNode parent, List<Resource> childs) {
+    childs.forEach(child -> requireSubnode(parent, child));
+    return this;
+  }
+
+  public ValidationBatch requireNotSubnode(RDFNode parent, RDFNode child) {
+    checks.add(new Check(false, false, parent, child,
+        context + String.format("'%s' is not allowed to be a subtype of '%s'.", child.toString(),
+            parent.toString())));
+    return this;
+  }
+
+  public ValidationBatch requireAbsent(Resource node) {
+    absent.putIfAbsent(node, context + String.format("'%s' already exists", node.toString()));
+    return this;
+  }
+
+  public ValidationBatch requireType(RDFNode type, RDFNode node) {
+    checks.add(new Check(true, true, type, node,
+        context + String.format("'%s' is not an individual of '%s'", node.toString(),
+            type.toString())));
+    return this;
+  }
+
+  /**
+   * Runs all collected checks and throws an IllegalArgumentException with the message of the
+   * first one that failed.
+   */
+  public void validate() {
+    Set<List<RDFNode>> subnodePairs = new LinkedHashSet<>();
+    Set<List<RDFNode>> typePairs = new LinkedHashSet<>();
+    for (Check check : checks) {
+      if (!check.type) {
+        subnodePairs.add(List.of(check.parent, check.child));
+      } else if (declared.containsKey(check.child.toString())) {
+        declared.get(check.child.toString())
+            .forEach(type -> subnodePairs.add(List.of(check.parent, type)));
+      } else {
+        typePairs.add(List.of(check.parent, check.child));
+      }
+    }
+    Set<String> subnodes = matching(subnodePairs, (builder, ef) -> builder
+        .addWhere(VAR_CHILD, VAR_PREDICATE, VAR_PARENT)
+        .addFilter(ef.in(VAR_PREDICATE, RDFS.subClassOf, RDFS.subPropertyOf)));
+    Set<String> types = matching(typePairs,
+        (builder, ef) -> builder.addWhere(VAR_CHILD, RDF.type, VAR_PARENT));
+    for (Check check : checks) {
+      boolean result;
+      if (!check.type) {
+        result = subnodes.contains(key(check.parent, check.child));
+      } else if (declared.containsKey(check.child.toString())) {
+        result = declared.get(check.child.toString())
+            .stream()
+            .anyMatch(type -> type.toString().equals(check.parent.toString())
+                || subnodes.contains(key(check.parent, type)));
+      } else {
+        result = check.parent.toString().equals(check.child.toString())
+            || types.contains(key(check.parent, check.child));
+      }
+      if (result != check.expected) {
+        throw new IllegalArgumentException(check.message);
+      }
+    }
+    Set<String> existing = existing(new ArrayList<>(absent.keySet()));
+    absent.forEach((node, message) -> {
+      if (existing.contains(node.toString())) {
+        throw new IllegalArgumentException(message);
+      }
+    });
+  }
+
+  private interface Where {
+    void add(SelectBuilder builder, ExprFactory ef);
+  }
+
+  private Set<String> matching(Set<List<RDFNode>> pairs, Where where) {
+    Set<String> matches = new HashSet<>();
+    List<List<RDFNode>> all = new ArrayList<>(pairs);
+    for (int start = 0; start < all.size(); start += SLICE_SIZE) {
+      List<List<RDFNode>> slice = all.subList(start, Math.min(start + SLICE_SIZE, all.size()));
+      // Binding the values in a sub query places them before all other patterns of the query
+      SelectBuilder builder = new SelectBuilder()
+          .setDistinct(true)
+          .addVar(VAR_PARENT)
+          .addVar(VAR_CHILD)
+          .addSubQuery(new SelectBuilder()
+              .addVar(VAR_PARENT)
+              .addVar(VAR_CHILD)
+              .addWhereValueVar(VAR_PARENT, slice.stream().map(pair -> pair.get(0)).toArray())
+              .addWhereValueVar(VAR_CHILD, slice.stream().map(pair -> pair.get(1)).toArray()));
+      where.add(builder, builder.getExprFactory());
+      jenaService.select(builder, row -> matches
+          .add(key(row.get(VAR_PARENT.getName()), row.get(VAR_CHILD.getName()))));
+    }
+    return matches;
+  }
+
+  private Set<String> existing(List<Resource> nodes) {
+    Set<String> existing = new HashSet<>();
+    for (int start = 0; start < nodes.size(); start += SLICE_SIZE) {
+      List<Resource> slice = nodes.subList(start, Math.min(start + SLICE_SIZE, nodes.size()));
+      SelectBuilder builder = new SelectBuilder()
+          .setDistinct(true)
+          .addVar(VAR_CHILD)
+          .addSubQuery(new SelectBuilder()
+              .addVar(VAR_CHILD)
+              .addWhereValueVar(VAR_CHILD, slice.toArray()))
+          .addWhere(VAR_CHILD, VAR_PREDICATE, VAR_OBJECT);
+      jenaService.select(builder, row -> existing.add(row.get(VAR_CHILD.getName()).toString()));
+    }
+    return existing;
+  }
+
+  private static String key(RDFNode parent, RDFNode child) {
+    return parent.toString() + " " + child.toString();
+  }
+}
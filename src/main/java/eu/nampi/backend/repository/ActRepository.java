@@ -3,21 +3,26 @@ package eu.nampi.backend.repository;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_COMMENT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_LABEL;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
+import static eu.nampi.backend.queryBuilder.AbstractHydraUpdateBuilder.VAR_OBJECT;
+import static eu.nampi.backend.queryBuilder.AbstractHydraUpdateBuilder.VAR_PREDICATE;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
@@ -27,7 +32,6 @@ import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.sparql.path.Path;
 import org.apache.jena.sparql.path.PathFactory;
-import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +44,7 @@ import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.service.JenaService;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
@@ -57,6 +62,8 @@ public class ActRepository {
   private static final List<Literal> DEFAULT_LABEL =
       Arrays.asList(ResourceFactory.createLangLiteral("Document interpretation act", "en"));
   private static final String ENDPOINT_NAME = "acts";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
+  private static final QueryTemplate FIND_FOR_EVENT_TEMPLATE = new QueryTemplate();
   private static final Node VAR_AUTHOR = NodeFactory.createVariable("author");
   private static final Node VAR_AUTHOR_LABEL = NodeFactory.createVariable("authorLabel");
   private static final Node VAR_DATE = NodeFactory.createVariable("authoredDate");
@@ -125,8 +132,8 @@ public class ActRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #author, #source}")
-  public String findAll(QueryParameters params, Lang lang, Optional<Resource> author,
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems, #author, #source}")
+  public byte[] findAll(QueryParameters params, Lang lang, Optional<Resource> author,
       Optional<Resource> source) {
     HydraCollectionBuilder builder =
         hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME, Core.act, Api.actOrderByProp, params);
@@ -153,6 +160,7 @@ public class ActRepository {
     });
 
     addData(builder.extendedData, false);
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
@@ -165,22 +173,18 @@ public class ActRepository {
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.act);
-    addData(builder.coreData, true);
-    return builder.query(ROW_MAPPER, lang);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> addData(coreData, true), ROW_MAPPER, lang);
   }
 
   private void addData(WhereBuilder builder, boolean withTypes) {
-    ExprFactory ef = builder.getExprFactory();
     WhereBuilder locationBuilder = new WhereBuilder()
         .addWhere(VAR_LOC, Core.hasText, VAR_LOC_TEXT);
     if (withTypes) {
       locationBuilder
           .addWhere(VAR_LOC, VAR_LOC_TEXT_TYPE, VAR_LOC_TEXT)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TEXT_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TEXT_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TEXT_TYPE), RDF.getURI())));
+          .addWhere(VAR_LOC_TEXT_TYPE, Api.displayable, true);
     }
     builder
         .addWhere(VAR_MAIN, Core.isAuthoredBy, VAR_AUTHOR)
@@ -196,29 +200,46 @@ public class ActRepository {
     if (withTypes) {
       builder
           .addWhere(VAR_LOC, RDF.type, VAR_LOC_TYPE)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOC_TYPE), RDF.getURI())));
+          .addWhere(VAR_LOC_TYPE, Api.displayable, true);
     }
   }
 
   private Optional<Resource> findResourceForEvent(Resource event) {
     Node varAct = NodeFactory.createVariable("act");
     Node varEvent = NodeFactory.createVariable("event");
-    SelectBuilder builder = new SelectBuilder();
-    ExprFactory ef = builder.getExprFactory();
-    builder
+    Query query = FIND_FOR_EVENT_TEMPLATE.bind(() -> new SelectBuilder()
         .addVar(varAct)
-        .addWhere(varEvent, Core.isInterpretationOf, varAct)
-        .addFilter(ef.sameTerm(varEvent, event));
+        .addWhere(varEvent, Core.isInterpretationOf, varAct), Map.of(varEvent, event));
     AtomicReference<Optional<Resource>> id = new AtomicReference<>();
-    jenaService.select(builder,
+    jenaService.select(query,
         qs -> id.set(Optional.ofNullable(qs.getResource(varAct.getName()))));
     return id.get();
   }
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.act);
+    addDetailsDelete(builder.updateBuilder);
+    builder.build();
+  }
+
+  /**
+   * Creates an update that deletes the act the event is an interpretation of, without looking up
+   * the act first.
+   */
+  UpdateBuilder deleteBuilder(Resource event) {
+    Node varEvent = NodeFactory.createVariable("event");
+    UpdateBuilder builder = new UpdateBuilder();
+    ExprFactory ef = builder.getExprFactory();
+    builder
+        .addFilter(ef.sameTerm(varEvent, event))
+        .addWhere(varEvent, Core.isInterpretationOf, VAR_MAIN)
+        .addWhere(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT)
+        .addDelete(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT);
+    addDetailsDelete(builder);
+    return builder;
+  }
+
+  private void addDetailsDelete(UpdateBuilder builder) {
     Node varDate = NodeFactory.createVariable("date");
     Node varDateObject = NodeFactory.createVariable("dateObject");
     Node varDatePredicate = NodeFactory.createVariable("datePredicate");
@@ -232,24 +253,19 @@ public class ActRepository {
         .addWhere(VAR_MAIN, Core.isAuthoredOn, varDate)
         .addWhere(varDate, varDatePredicate, varDateObject)
         .addWhere(varLocation, varLocationPredicate, varLocationObject);
-    builder.build();
   }
 
-  public Resource insert(Lang lang, List<Resource> authors, Resource source,
+  /**
+   * Creates a builder that inserts the act without validating the authors and the source.
+   */
+  HydraInsertBuilder insertBuilder(Lang lang, List<Resource> authors, Resource source,
       Optional<Literal> sourceLocation) {
     HydraInsertBuilder builder =
         hydraBuilderFactory.insertBuilder(lang, ENDPOINT_NAME, Arrays.asList(Core.act),
             DEFAULT_LABEL, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
     // Insert authors
-    authors.forEach(author -> {
-      builder
-          .validateType(Core.author, author);
-      builder
-          .addInsert(builder.root, Core.isAuthoredBy, author);
-    });
+    authors.forEach(author -> builder.addInsert(builder.root, Core.isAuthoredBy, author));
     // Insert source location
-    builder
-        .validateType(Core.source, source);
     Resource sourceLocationResource = ResourceFactory.createResource();
     builder
         .addInsert(builder.root, Core.hasSourceLocation, sourceLocationResource)
@@ -266,8 +282,6 @@ public class ActRepository {
             ResourceFactory.createTypedLiteral(
                 LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
                 XSDDatatype.XSDdateTime));
-    // build
-    builder.build();
-    return builder.root;
+    return builder;
   }
 }
@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.BiFunction;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
@@ -31,12 +30,14 @@ import org.springframework.stereotype.Repository;
 import eu.nampi.backend.exception.DeletionNotPermittedException;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.queryBuilder.HydraBatchBuilder;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
 import eu.nampi.backend.queryBuilder.HydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 
@@ -45,6 +46,7 @@ import eu.nampi.backend.vocabulary.Core;
 public class AspectRepository {
 
   private static final String ENDPOINT_NAME = "aspects";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
   private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
 
   @Autowired
@@ -81,8 +83,8 @@ public class AspectRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #participant}")
-  public String findAll(QueryParameters params, Lang lang, Optional<Resource> participant) {
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems, #participant}")
+  public byte[] findAll(QueryParameters params, Lang lang, Optional<Resource> participant) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.aspect, Api.aspectOrderByProp, params, false);
     ExprFactory ef = builder.ef;
@@ -105,13 +107,20 @@ public class AspectRepository {
     });
 
     addData(builder.extendedData);
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder =
         hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.aspect);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> addData(coreData), ROW_MAPPER, lang);
+  }
+
+  public byte[] findMany(Lang lang, List<UUID> ids) {
+    HydraBatchBuilder builder =
+        hydraBuilderFactory.batchBuilder(ENDPOINT_NAME, Core.aspect, lang, ids);
     addData(builder.coreData);
     return builder.query(ROW_MAPPER, lang);
   }
@@ -128,23 +137,23 @@ public class AspectRepository {
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.aspect, types);
     builder.build();
-    return new InsertResult(builder.root, findOne(lang, builder.id));
+    return new InsertResult(builder.root,
+        hydraBuilderFactory.writeResultBuilder(Core.aspect, builder).query(lang));
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs) {
     HydraUpdateBuilder builder = hydraBuilderFactory.updateBuilder(lang, id, ENDPOINT_NAME, types,
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.aspect, types);
     builder.build();
-    return findOne(lang, builder.id);
+    return hydraBuilderFactory.writeResultBuilder(Core.aspect, builder).query(lang);
   }
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.aspect);
-    if (builder.ask(new AskBuilder().addWhere("?event", Core.usesAspect, builder.root))) {
+    if (!builder.unlessReferencedBy(Core.usesAspect).build() && builder.isReferenced()) {
       throw new DeletionNotPermittedException("The aspect to be deleted is still in use");
     }
-    builder.build();
   }
 }
@@ -4,6 +4,7 @@ import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_COMMENT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_LABEL;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_TYPE;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
@@ -11,6 +12,7 @@ import java.util.function.BiFunction;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
@@ -28,6 +30,7 @@ import eu.nampi.backend.model.QueryParameters;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.service.JenaService;
 import eu.nampi.backend.util.UrlBuilder;
 import eu.nampi.backend.vocabulary.Api;
@@ -47,6 +50,8 @@ public class AuthorRepository {
   JenaService jenaService;
 
   private static final String ENDPOINT_NAME = "authors";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
+  private static final QueryTemplate FIND_BY_ID_TEMPLATE = new QueryTemplate();
 
   private static final BiFunction<Model, QuerySolution, RDFNode> ROW_MAPPER = (model, row) -> {
     Resource main = row.getResource(VAR_MAIN.toString());
@@ -70,32 +75,30 @@ public class AuthorRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text}")
-  public String findAll(QueryParameters params, Lang lang) {
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems}")
+  public byte[] findAll(QueryParameters params, Lang lang) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.author, Api.authorOrderByProp, params);
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.author);
-    return builder.query(ROW_MAPPER, lang);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> {}, ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#rdfId}")
   public Optional<Author> findOne(UUID rdfId) {
     AtomicReference<Optional<Author>> authorRef = new AtomicReference<>(Optional.empty());
-    SelectBuilder builder = new SelectBuilder();
-    ExprFactory ef = builder.getExprFactory();
     String authorIri = urlBuilder.endpointUri(ENDPOINT_NAME, rdfId);
     Resource author = ResourceFactory.createResource(authorIri);
-    builder
-        .addValueVar(VAR_LABEL)
+    Query query = FIND_BY_ID_TEMPLATE.bind(() -> new SelectBuilder()
+        .addVar(VAR_LABEL)
         .addWhere(VAR_MAIN, RDF.type, Core.author)
-        .addWhere(VAR_MAIN, RDFS.label, VAR_LABEL)
-        .addFilter(ef.sameTerm(VAR_MAIN, author));
-    jenaService.select(builder, (qs) -> {
+        .addWhere(VAR_MAIN, RDFS.label, VAR_LABEL), Map.of(VAR_MAIN, author));
+    jenaService.select(query, (qs) -> {
       String label = qs.getLiteral(VAR_LABEL.toString()).getString();
       authorRef.set(Optional.of(new Author(authorIri, rdfId, label)));
     });
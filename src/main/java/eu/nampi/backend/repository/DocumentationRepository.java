@@ -30,7 +30,7 @@ public class DocumentationRepository {
   @Autowired
   UrlBuilder urlBuilder;
 
-  public String get(Lang lang) {
+  public byte[] get(Lang lang) {
 
     Model model = ModelFactory.createDefaultModel();
     model
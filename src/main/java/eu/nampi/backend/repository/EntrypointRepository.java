@@ -28,7 +28,7 @@ public class EntrypointRepository {
   @Autowired
   UserRepository userRepository;
 
-  public String get(Lang lang) {
+  public byte[] get(Lang lang) {
     Model model = ModelFactory.createDefaultModel()
         .setNsPrefix("api", Api.getURI())
         .setNsPrefix("rdfs", RDFS.getURI())
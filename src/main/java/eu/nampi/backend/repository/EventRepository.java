@@ -5,16 +5,21 @@ import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_LABEL;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_TEXT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_TYPE;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.Order;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.datatypes.xsd.impl.XSDDateType;
@@ -28,10 +33,10 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.lang.sparql_11.ParseException;
 import org.apache.jena.sparql.path.Path;
 import org.apache.jena.sparql.path.PathFactory;
-import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.update.UpdateRequest;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +45,8 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 import eu.nampi.backend.converter.StringToDateRangeConverter;
 import eu.nampi.backend.model.DateRange;
+import eu.nampi.backend.model.DatesMatchMode;
+import eu.nampi.backend.model.Facet;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
 import eu.nampi.backend.model.ResourceCouple;
@@ -48,6 +55,9 @@ import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
+import eu.nampi.backend.queryBuilder.ValidationBatch;
+import eu.nampi.backend.service.EventDateIndexService;
 import eu.nampi.backend.service.JenaService;
 import eu.nampi.backend.util.UrlBuilder;
 import eu.nampi.backend.vocabulary.Api;
@@ -69,12 +79,21 @@ public class EventRepository {
   @Autowired
   UrlBuilder urlBuilder;
 
+  @Autowired
+  EventDateIndexService eventDateIndexService;
+
+  @Autowired
+  StatisticsRepository statisticsRepository;
+
   private static final String NEGATIVE_DEFAULT_DATE = "-999999-01-01T00:00:00";
   private static final String POSITIVE_DEFAULT_DATE = "999999-01-01T00:00:00";
 
   private static final StringToDateRangeConverter CONVERTER = new StringToDateRangeConverter();
 
   private static final String ENDPOINT_NAME = "events";
+  private static final int SORT_DATE_BATCH_SIZE = 500;
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
+  private static final QueryTemplate IS_AUTHOR_TEMPLATE = new QueryTemplate();
   private static final Node VAR_ACT = NodeFactory.createVariable("act");
   private static final Node VAR_ACT_DATE = NodeFactory.createVariable("actDate");
   private static final Node VAR_ACT_DATE_TIME = NodeFactory.createVariable("actDateTime");
@@ -90,9 +109,6 @@ public class EventRepository {
   private static final Node VAR_DATE_EXACT = NodeFactory.createVariable("dateExact");
   private static final Node VAR_DATE_LATEST = NodeFactory.createVariable("dateLatest");
   private static final Node VAR_DATE_OUTER = NodeFactory.createVariable("dateOuter");
-  private static final Node VAR_DATE_REAL_SORT = NodeFactory.createVariable("dateRealSort");
-  private static final Node VAR_DATE_REAL_SORT_OUTER =
-      NodeFactory.createVariable("dateRealSortOuter");
   private static final Node VAR_DATE_SORT = NodeFactory.createVariable("dateSort");
   private static final Node VAR_DATE_TIME_EARLIEST = NodeFactory.createVariable("dateTimeEarliest");
   private static final Node VAR_DATE_TIME_EXACT = NodeFactory.createVariable("dateTimeExact");
@@ -119,7 +135,7 @@ public class EventRepository {
   private static final Node VAR_SOURCE = NodeFactory.createVariable("source");
   private static final Node VAR_SOURCE_LABEL = NodeFactory.createVariable("sourceLocation");
 
-  private static final BiFunction<Model, QuerySolution, RDFNode> ROW_MAPPER = (model, row) -> {
+  private static final BiFunction<Model, QuerySolution, RDFNode> MAIN_MAPPER = (model, row) -> {
     Resource main = row.getResource(VAR_MAIN.toString());
     // Main
     Optional
@@ -138,6 +154,11 @@ public class EventRepository {
     Optional
         .ofNullable(row.getLiteral(VAR_COMMENT.toString()))
         .ifPresent(comment -> model.add(main, RDFS.comment, comment));
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> ACT_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
     // Act
     Resource act = row.getResource(VAR_ACT.toString());
     Resource author = row.getResource(VAR_AUTHOR.toString());
@@ -169,6 +190,11 @@ public class EventRepository {
               .map(type -> ResourceFactory.createProperty(type.getURI()))
               .ifPresent(type -> model.add(location, type, locationText));
         });
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> ASPECT_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
     // Aspect
     Optional
         .ofNullable(row.getResource(VAR_ASPECT.toString()))
@@ -189,6 +215,11 @@ public class EventRepository {
               .ifPresentOrElse(type -> model.add(aspect, RDF.type, type),
                   () -> model.add(aspect, RDF.type, Core.aspect));
         });
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> ACTOR_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
     // Participant
     Optional
         .ofNullable(row.getResource(VAR_PARTICIPANT.toString()))
@@ -212,6 +243,11 @@ public class EventRepository {
         .ifPresent(participant -> model
             .add(main, Core.hasMainParticipant, participant)
             .add(participant, RDFS.label, row.getLiteral(VAR_MAIN_PARTICIPANT_LABEL.toString())));
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> PLACE_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
     // Place
     Optional
         .ofNullable(row.getResource(VAR_PLACE.toString()))
@@ -231,6 +267,11 @@ public class EventRepository {
                       .add(place, Core.hasLatitude, latitude)
                       .add(place, Core.hasLongitude, longitude)));
         });
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> DATE_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
     // Exact date
     Optional
         .ofNullable(row.getLiteral(VAR_DATE_TIME_EXACT.toString()))
@@ -261,11 +302,19 @@ public class EventRepository {
               .add(resDate, RDF.type, Core.date)
               .add(resDate, Core.hasDateTime, dateTime);
         });
-    // Sorting date
+    // Sorting date, the date node is the one the materialized sort key has been taken from
     Optional
         .ofNullable(row.getLiteral(VAR_DATE_OUTER.toString()))
+        .filter(dateTime -> !model.contains(main, Core.hasSortingDate))
         .ifPresent(dateTime -> {
-          Resource resDate = row.getResource(VAR_DATE_REAL_SORT_OUTER.toString());
+          Resource resDate = Stream
+              .of(dateWithTime(row, dateTime, VAR_DATE_SORT, VAR_DATE_TIME_SORT),
+                  dateWithTime(row, dateTime, VAR_DATE_EXACT, VAR_DATE_TIME_EXACT),
+                  dateWithTime(row, dateTime, VAR_DATE_LATEST, VAR_DATE_TIME_LATEST),
+                  dateWithTime(row, dateTime, VAR_DATE_EARLIEST, VAR_DATE_TIME_EARLIEST))
+              .flatMap(Optional::stream)
+              .findFirst()
+              .orElseGet(model::createResource);
           model
               .add(main, Core.hasSortingDate, resDate)
               .add(resDate, RDF.type, Core.date)
@@ -274,18 +323,84 @@ public class EventRepository {
     return main;
   };
 
+  private static final BiFunction<Model, QuerySolution, RDFNode> ROW_MAPPER = (model, row) -> {
+    Stream
+        .of(ACT_MAPPER, ASPECT_MAPPER, ACTOR_MAPPER, PLACE_MAPPER, DATE_MAPPER)
+        .forEach(mapper -> mapper.apply(model, row));
+    return MAIN_MAPPER.apply(model, row);
+  };
+
+  private static Optional<Resource> dateWithTime(QuerySolution row, Literal dateTime,
+      Node varDate, Node varDateTime) {
+    return Optional
+        .ofNullable(row.getLiteral(varDateTime.toString()))
+        .filter(dateTime::sameValueAs)
+        .map(literal -> row.getResource(varDate.toString()));
+  }
+
+  @Cacheable(
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems, #params.fields, #dates, #datesMatch, #aspect, #aspectType, #aspectUseType, #participant, #participantType, #participationType, #place, #author, #source}")
+  public byte[] findAll(QueryParameters params, Lang lang, Optional<String> dates,
+      Optional<DatesMatchMode> datesMatch, Optional<Resource> aspect, Optional<Resource> aspectType,
+      Optional<Property> aspectUseType,
+      Optional<Resource> participant, Optional<Resource> participantType,
+      Optional<Property> participationType, Optional<Resource> place, Optional<Resource> author,
+      Optional<Resource> source) {
+    HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
+        Core.event, Api.eventOrderByProp, params, false);
+    Property sortDate = sortDate(params);
+    addFilters(builder, params, dates, datesMatch, aspect, aspectType, aspectUseType, participant,
+        participantType, participationType, place, author, source);
+    // The related data is queried separately for the events of the page
+    builder
+        .addHydration("dates", datesWhere().addOptional(VAR_MAIN, sortDate, VAR_DATE_OUTER),
+            DATE_MAPPER)
+        .addHydration("act", actWhere(false), ACT_MAPPER)
+        .addHydration("participants", participantWhere(false), ACTOR_MAPPER)
+        .addHydration("aspects", aspectWhere(false), ASPECT_MAPPER)
+        .addHydration("place", placeWhere(false), PLACE_MAPPER)
+        .useStatistics(Facet.AUTHOR, Facet.PARTICIPANT, Facet.PLACE, Facet.SOURCE);
+    return builder.query(MAIN_MAPPER, lang);
+  }
+
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #dates, #aspect, #aspectType, #aspectUseType, #participant, #participantType, #participationType, #place, #author, #source}")
-  public String findAll(QueryParameters params, Lang lang, Optional<String> dates,
-      Optional<Resource> aspect, Optional<Resource> aspectType, Optional<Property> aspectUseType,
+      key = "{'facets', #lang, #params.type, #params.text, #facets, #dates, #datesMatch, #aspect, #aspectType, #aspectUseType, #participant, #participantType, #participationType, #place, #author, #source}")
+  public byte[] findFacets(QueryParameters params, Lang lang, List<Facet> facets,
+      Optional<String> dates, Optional<DatesMatchMode> datesMatch, Optional<Resource> aspect,
+      Optional<Resource> aspectType, Optional<Property> aspectUseType,
       Optional<Resource> participant, Optional<Resource> participantType,
       Optional<Property> participationType, Optional<Resource> place, Optional<Resource> author,
       Optional<Resource> source) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.event, Api.eventOrderByProp, params, false);
+    addFilters(builder, params, dates, datesMatch, aspect, aspectType, aspectUseType, participant,
+        participantType, participationType, place, author, source);
+    return statisticsRepository.facets(lang, urlBuilder.endpointUri(ENDPOINT_NAME, "facets"),
+        builder.countFacets(facets));
+  }
+
+  @Cacheable(key = "{#lang, #id}")
+  public byte[] findOne(Lang lang, UUID id) {
+    HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.event);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> coreData
+        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
+        .addWhere(datesWhere())
+        .addOptional(VAR_MAIN, Api.sortDateAscending, VAR_DATE_OUTER)
+        .addWhere(actWhere(true))
+        .addWhere(participantWhere(true))
+        .addOptional(aspectWhere(true))
+        .addOptional(placeWhere(true)), ROW_MAPPER, lang);
+  }
+
+  private void addFilters(HydraCollectionBuilder builder, QueryParameters params,
+      Optional<String> dates, Optional<DatesMatchMode> datesMatch, Optional<Resource> aspect,
+      Optional<Resource> aspectType, Optional<Property> aspectUseType,
+      Optional<Resource> participant, Optional<Resource> participantType,
+      Optional<Property> participationType, Optional<Resource> place, Optional<Resource> author,
+      Optional<Resource> source) {
     ExprFactory ef = builder.ef;
     boolean hasDateSort = params.getOrderByClauses().containsKey("date");
-    Order order = params.getOrderByClauses().getOrderFor("date").orElse(Order.ASCENDING);
+    Property sortDate = sortDate(params);
     // Add custom text select
     params.getText().ifPresent(text -> {
       Node varSearchString = NodeFactory.createVariable("searchString");
@@ -354,64 +469,47 @@ public class EventRepository {
     builder.mapper.add("source", Api.eventSourceProp, source);
     source.ifPresent(resSource -> builder.coreData.addWhere(actWhere(false))
         .addFilter(ef.sameTerm(VAR_SOURCE, resSource)));
-    // Dates data
-    if (hasDateSort || dates.isPresent()) {
-      builder.coreData.addWhere(datesWhere(order, VAR_DATE_REAL_SORT, VAR_DATE));
+    // Dates data, the candidates are taken from the date index if it is available
+    builder.mapper
+        .add("dates", Api.eventDatesProp, dates)
+        .add("datesMatch", Api.eventDatesMatchProp, datesMatch.filter(mode -> dates.isPresent()));
+    Optional<DateRange> dateRange = dates
+        .map(CONVERTER::convert)
+        .filter(range -> range.getStart().isPresent() || range.getEnd().isPresent());
+    // A single date matches the sort date of an event exactly and isn't looked up in the index
+    DatesMatchMode mode = datesMatch.orElse(DatesMatchMode.OVERLAP);
+    Optional<DateRange> range = dateRange.filter(DateRange::isRange);
+    Optional<List<Resource>> candidates =
+        range.flatMap(r -> eventDateIndexService.find(r, mode));
+    candidates.ifPresent(builder::restrictMembers);
+    // Ranges the index can't answer are matched against the same intervals in the database
+    if (range.isPresent() && candidates.isEmpty()) {
+      builder.coreData.addFilter(eventDateIndexService.filter(VAR_MAIN, range.get(), mode));
     }
-    builder.mapper.add("dates", Api.eventDatesProp, dates);
-    dates.ifPresent(datesString -> {
-      DateRange dateRange = CONVERTER.convert(datesString);
-      Optional<Expr> start =
-          dateRange.getStart().map(date -> ef.asExpr(ResourceFactory.createTypedLiteral(
-              date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), XSDDateType.XSDdateTime)));
-      Optional<Expr> end =
-          dateRange.getEnd().map(date -> ef.asExpr(ResourceFactory.createTypedLiteral(
-              date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), XSDDateType.XSDdateTime)));
-      if (start.isPresent() || end.isPresent()) {
-        if (start.isPresent() && end.isPresent()) {
-          builder.coreData.addFilter(ef.ge(VAR_DATE, start.get()))
-              .addFilter(ef.le(VAR_DATE, end.get()));
-        } else if (start.isPresent() && dateRange.isRange()) {
-          builder.coreData.addFilter(ef.ge(VAR_DATE, start.get()));
-        } else if (start.isPresent()) {
-          builder.coreData.addFilter(ef.sameTerm(VAR_DATE, start.get()));
-        } else {
-          builder.coreData.addFilter(ef.le(VAR_DATE, end.get()));
-        }
-      }
-    });
-    builder.extendedData
-        .addWhere(datesWhere(order, VAR_DATE_REAL_SORT_OUTER, VAR_DATE_OUTER))
-        .addWhere(actWhere(false))
-        .addWhere(participantWhere(false)).addOptional(aspectWhere(false))
-        .addOptional(placeWhere(false));
-    return builder.query(ROW_MAPPER, lang);
+    Optional<LocalDateTime> singleDate = dateRange
+        .filter(r -> !r.isRange())
+        .flatMap(DateRange::getStart);
+    if (hasDateSort || singleDate.isPresent()) {
+      builder.coreData.addWhere(VAR_MAIN, sortDate, VAR_DATE);
+    }
+    singleDate.ifPresent(date -> builder.coreData.addFilter(ef.sameTerm(VAR_DATE,
+        ef.asExpr(ResourceFactory.createTypedLiteral(
+            date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), XSDDateType.XSDdateTime)))));
   }
 
-  @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
-    HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.event);
-    builder.coreData
-        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
-        .addWhere(datesWhere(Order.ASCENDING, VAR_DATE_REAL_SORT, VAR_DATE))
-        .addWhere(actWhere(true))
-        .addWhere(participantWhere(true))
-        .addOptional(aspectWhere(true))
-        .addOptional(placeWhere(true));
-    return builder.query(ROW_MAPPER, lang);
+  private Property sortDate(QueryParameters params) {
+    Order order = params.getOrderByClauses().getOrderFor("date").orElse(Order.ASCENDING);
+    return order == Order.ASCENDING ? Api.sortDateAscending : Api.sortDateDescending;
   }
 
   private WhereBuilder actWhere(boolean withTypes) {
     WhereBuilder builder = new WhereBuilder();
-    ExprFactory ef = builder.getExprFactory();
     WhereBuilder locationBuilder = new WhereBuilder()
         .addWhere(VAR_LOCATION, Core.hasText, VAR_LOCATION_TEXT);
     if (withTypes) {
       locationBuilder
           .addWhere(VAR_LOCATION, VAR_LOCATION_TEXT_TYPE, VAR_LOCATION_TEXT)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TEXT), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TEXT), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TEXT), RDF.getURI())));
+          .addWhere(VAR_LOCATION_TEXT_TYPE, Api.displayable, true);
     }
     builder
         .addWhere(VAR_MAIN, Core.isInterpretationOf, VAR_ACT)
@@ -426,16 +524,13 @@ public class EventRepository {
     if (withTypes) {
       builder
           .addWhere(VAR_LOCATION, RDF.type, VAR_LOCATION_TYPE)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_LOCATION_TYPE), RDF.getURI())));
+          .addWhere(VAR_LOCATION_TYPE, Api.displayable, true);
     }
     return builder;
   }
 
   private WhereBuilder aspectWhere(boolean withTypes) {
     WhereBuilder builder = new WhereBuilder();
-    ExprFactory ef = builder.getExprFactory();
     builder
         .addWhere(VAR_MAIN, Core.usesAspect, VAR_ASPECT)
         .addWhere(VAR_ASPECT, RDFS.label, VAR_ASPECT_LABEL)
@@ -444,67 +539,30 @@ public class EventRepository {
       builder
           .addWhere(VAR_ASPECT, RDF.type, VAR_ASPECT_TYPE)
           .addWhere(VAR_MAIN, VAR_ASPECT_USE_TYPE, VAR_ASPECT)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_ASPECT_USE_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_ASPECT_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_ASPECT_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_ASPECT_TYPE), RDF.getURI())));
+          .addWhere(VAR_ASPECT_USE_TYPE, Api.displayable, true)
+          .addWhere(VAR_ASPECT_TYPE, Api.displayable, true);
     }
     return builder;
   }
 
-  private WhereBuilder datesWhere(Order order, Node varDate, Node varDateTime) {
-    WhereBuilder builder = new WhereBuilder();
-    ExprFactory ef = builder.getExprFactory();
-    builder
+  private WhereBuilder datesWhere() {
+    return new WhereBuilder()
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, Core.takesPlaceOn, VAR_DATE_EXACT)
             .addWhere(VAR_DATE_EXACT, Core.hasDateTime, VAR_DATE_TIME_EXACT))
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, Core.takesPlaceNotEarlierThan, VAR_DATE_EARLIEST)
             .addWhere(VAR_DATE_EARLIEST, Core.hasDateTime, VAR_DATE_TIME_EARLIEST))
-        .addOptional(
-            new WhereBuilder()
-                .addWhere(VAR_MAIN, Core.takesPlaceNotLaterThan, VAR_DATE_LATEST)
-                .addWhere(VAR_DATE_LATEST, Core.hasDateTime, VAR_DATE_TIME_LATEST))
+        .addOptional(new WhereBuilder()
+            .addWhere(VAR_MAIN, Core.takesPlaceNotLaterThan, VAR_DATE_LATEST)
+            .addWhere(VAR_DATE_LATEST, Core.hasDateTime, VAR_DATE_TIME_LATEST))
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, Core.hasSortingDate, VAR_DATE_SORT)
-            .addWhere(VAR_DATE_SORT, Core.hasDateTime, VAR_DATE_TIME_SORT))
-        .addBind(ef.cond(ef.bound(VAR_DATE_SORT), ef.asVar(VAR_DATE_SORT),
-            ef.cond(ef.bound(VAR_DATE_EXACT), ef.asVar(VAR_DATE_EXACT),
-                order.equals(Order.ASCENDING)
-                    ? ef.asExpr(
-                        ef.cond(ef.bound(VAR_DATE_LATEST), ef.asVar(VAR_DATE_LATEST),
-                            ef.cond(ef.bound(VAR_DATE_EARLIEST), ef.asVar(VAR_DATE_EARLIEST),
-                                ef.bnode())))
-                    : ef.asExpr(ef.cond(ef.bound(VAR_DATE_EARLIEST), ef.asVar(VAR_DATE_EARLIEST),
-                        ef.cond(ef.bound(VAR_DATE_LATEST), ef.asVar(VAR_DATE_LATEST),
-                            ef.bnode()))))),
-            varDate)
-        .addBind(
-            ef.cond(
-                ef.bound(VAR_DATE_TIME_SORT), ef.asVar(VAR_DATE_TIME_SORT), ef
-                    .cond(ef.bound(VAR_DATE_TIME_EXACT), ef.asVar(VAR_DATE_TIME_EXACT),
-                        order.equals(Order.ASCENDING)
-                            ? ef.asExpr(
-                                ef.cond(ef.bound(VAR_DATE_TIME_LATEST),
-                                    ef.asVar(VAR_DATE_TIME_LATEST),
-                                    ef.cond(ef.bound(VAR_DATE_TIME_EARLIEST),
-                                        ef.asVar(VAR_DATE_TIME_EARLIEST),
-                                        ef.asExpr(ResourceFactory.createTypedLiteral(
-                                            POSITIVE_DEFAULT_DATE, XSDDatatype.XSDdateTime)))))
-                            : ef.asExpr(ef.cond(ef.bound(VAR_DATE_TIME_EARLIEST),
-                                ef.asVar(VAR_DATE_TIME_EARLIEST),
-                                ef.cond(ef.bound(VAR_DATE_TIME_LATEST),
-                                    ef.asVar(VAR_DATE_TIME_LATEST),
-                                    ef.asExpr(ResourceFactory.createTypedLiteral(
-                                        NEGATIVE_DEFAULT_DATE, XSDDatatype.XSDdateTime))))))),
-            varDateTime);
-    return builder;
+            .addWhere(VAR_DATE_SORT, Core.hasDateTime, VAR_DATE_TIME_SORT));
   }
 
   private WhereBuilder participantWhere(boolean withTypes) {
     WhereBuilder builder = new WhereBuilder();
-    ExprFactory ef = builder.getExprFactory();
     builder
         .addWhere(VAR_MAIN, Core.hasParticipant, VAR_PARTICIPANT)
         .addWhere(VAR_PARTICIPANT, RDFS.label, VAR_PARTICIPANT_LABEL)
@@ -513,18 +571,15 @@ public class EventRepository {
     if (withTypes) {
       builder
           .addWhere(VAR_MAIN, VAR_PARTICIPATION_TYPE, VAR_PARTICIPANT)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PARTICIPATION_TYPE), OWL.getURI())))
+          .addWhere(VAR_PARTICIPATION_TYPE, Api.displayable, true)
           .addWhere(VAR_PARTICIPANT, RDF.type, VAR_PARTICIPANT_TYPE)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PARTICIPANT_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PARTICIPANT_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PARTICIPANT_TYPE), RDF.getURI())));
+          .addWhere(VAR_PARTICIPANT_TYPE, Api.displayable, true);
     }
     return builder;
   }
 
   private WhereBuilder placeWhere(boolean withTypes) {
     WhereBuilder builder = new WhereBuilder();
-    ExprFactory ef = builder.getExprFactory();
     builder
         .addWhere(VAR_MAIN, Core.takesPlaceAt, VAR_PLACE)
         .addWhere(VAR_PLACE, RDFS.label, VAR_PLACE_LABEL)
@@ -534,14 +589,20 @@ public class EventRepository {
     if (withTypes) {
       builder
           .addWhere(VAR_PLACE, RDF.type, VAR_PLACE_TYPE)
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PLACE_TYPE), OWL.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PLACE_TYPE), RDFS.getURI())))
-          .addFilter(ef.not(ef.strstarts(ef.str(VAR_PLACE_TYPE), RDF.getURI())));
+          .addWhere(VAR_PLACE_TYPE, Api.displayable, true);
     }
     return builder;
   }
 
   public void delete(UUID id) {
+    HydraDeleteBuilder builder = deleteBuilder(id);
+    UpdateRequest request = new UpdateRequest();
+    // The act is deleted first, while the event still refers to it
+    addOperations(request, actRepository.deleteBuilder(builder.root), builder.updateBuilder);
+    jenaService.update(List.of(request));
+  }
+
+  private HydraDeleteBuilder deleteBuilder(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.event);
     // Delete event
     ExprFactory ef = builder.updateBuilder.getExprFactory();
@@ -559,9 +620,13 @@ public class EventRepository {
                 Core.takesPlaceNotLaterThan, Core.takesPlaceOn)))
         .addDelete(VAR_MAIN, varHasDatePredicate, varDate)
         .addDelete(varDate, varDatePredicate, varDateObject);
-    // Delete act
-    actRepository.findOne(builder.root).ifPresent(act -> actRepository.delete(act));
-    builder.build();
+    return builder;
+  }
+
+  private static void addOperations(UpdateRequest request, UpdateBuilder... builders) {
+    for (UpdateBuilder builder : builders) {
+      builder.buildRequest().getOperations().forEach(request::add);
+    }
   }
 
   public InsertResult insert(Optional<UUID> optionalId, Lang lang, List<Resource> types,
@@ -569,8 +634,30 @@ public class EventRepository {
       Resource source, Optional<Literal> sourceLocation, ResourceCouple mainParticipant,
       List<ResourceCouple> otherParticipants, List<ResourceCouple> aspects,
       Optional<Resource> optionalPlace, Optional<DateRange> optionalDate) {
-    validatePayload(lang, types, labels, comments, texts, authors, source, sourceLocation,
+    ValidationBatch validation = hydraBuilderFactory.validationBatch();
+    validatePayload(validation, types, authors, source, mainParticipant, otherParticipants,
+        aspects, optionalPlace, optionalDate);
+    validation.validate();
+    HydraInsertBuilder builder = insertBuilder(optionalId, lang, types, labels, comments, texts,
         mainParticipant, otherParticipants, aspects, optionalPlace, optionalDate);
+    // Connected act
+    HydraInsertBuilder act = actRepository.insertBuilder(lang, authors, source, sourceLocation);
+    builder.addInsert(builder.root, Core.isInterpretationOf, act.root);
+    UpdateRequest request = new UpdateRequest();
+    addOperations(request, act.updateBuilder, builder.updateBuilder);
+    jenaService.update(List.of(request));
+    byte[] result = hydraBuilderFactory.writeResultBuilder(Core.event, builder, act).query(lang);
+    return new InsertResult(builder.root, result);
+  }
+
+  /**
+   * Creates a builder that inserts the event without its act and without validating the payload.
+   */
+  HydraInsertBuilder insertBuilder(Optional<UUID> optionalId, Lang lang, List<Resource> types,
+      List<Literal> labels, List<Literal> comments, List<Literal> texts,
+      ResourceCouple mainParticipant, List<ResourceCouple> otherParticipants,
+      List<ResourceCouple> aspects, Optional<Resource> optionalPlace,
+      Optional<DateRange> optionalDate) {
     // Create builder depending on whether or not id is present
     HydraInsertBuilder builder = optionalId
         .map(id -> hydraBuilderFactory.insertBuilder(lang, id, ENDPOINT_NAME, types,
@@ -633,13 +720,19 @@ public class EventRepository {
         }
       }
     });
-    // Connected act
-    builder.addInsert(builder.root, Core.isInterpretationOf,
-        actRepository.insert(lang, authors, source, sourceLocation));
-    builder.build();
-    // Insert Document Interpretation Act
-    String result = findOne(lang, builder.id);
-    return new InsertResult(builder.root, result);
+    // Materialized sort keys
+    Optional<DateRange> dates =
+        optionalDate.filter(range -> range.getStart().isPresent() || range.getEnd().isPresent());
+    builder
+        .addInsert(builder.root, Api.sortDateAscending, sortDateLiteral(dates
+            .flatMap(range -> range.isRange() ? range.getEnd().or(range::getStart)
+                : range.getStart()),
+            POSITIVE_DEFAULT_DATE))
+        .addInsert(builder.root, Api.sortDateDescending, sortDateLiteral(dates
+            .flatMap(range -> range.isRange() ? range.getStart().or(range::getEnd)
+                : range.getStart()),
+            NEGATIVE_DEFAULT_DATE));
+    return builder;
   }
 
   public InsertResult insert(Lang lang, List<Resource> types, List<Literal> labels,
@@ -651,31 +744,98 @@ public class EventRepository {
         sourceLocation, mainParticipant, otherParticipants, aspects, optionalPlace, optionalDate);
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> authors, Resource source,
       Optional<Literal> sourceLocation, ResourceCouple mainParticipant,
       List<ResourceCouple> otherParticipants, List<ResourceCouple> aspects,
       Optional<Resource> optionalPlace, Optional<DateRange> optionalDate) {
-    validatePayload(lang, types, labels, comments, texts, authors, source, sourceLocation,
-        mainParticipant, otherParticipants, aspects, optionalPlace, optionalDate);
-    delete(id);
-    insert(Optional.of(id), lang, types, labels, comments, texts, authors, source, sourceLocation,
-        mainParticipant, otherParticipants, aspects, optionalPlace, optionalDate);
-    return findOne(lang, id);
+    ValidationBatch validation = hydraBuilderFactory.validationBatch();
+    validatePayload(validation, types, authors, source, mainParticipant, otherParticipants,
+        aspects, optionalPlace, optionalDate);
+    validation.validate();
+    HydraDeleteBuilder delete = deleteBuilder(id);
+    HydraInsertBuilder insert = insertBuilder(Optional.of(id), lang, types, labels, comments,
+        texts, mainParticipant, otherParticipants, aspects, optionalPlace, optionalDate);
+    HydraInsertBuilder act = actRepository.insertBuilder(lang, authors, source, sourceLocation);
+    insert.addInsert(insert.root, Core.isInterpretationOf, act.root);
+    // The old act and event are replaced by the new ones in a single request
+    UpdateRequest request = new UpdateRequest();
+    addOperations(request, actRepository.deleteBuilder(delete.root), delete.updateBuilder,
+        act.updateBuilder, insert.updateBuilder);
+    jenaService.update(List.of(request));
+    return hydraBuilderFactory.writeResultBuilder(Core.event, insert, act).query(lang);
   }
 
-  private void validatePayload(Lang lang, List<Resource> types,
-      List<Literal> labels, List<Literal> comments, List<Literal> texts, List<Resource> authors,
-      Resource source, Optional<Literal> sourceLocation, ResourceCouple mainParticipant,
-      List<ResourceCouple> otherParticipants, List<ResourceCouple> aspects,
-      Optional<Resource> optionalPlace, Optional<DateRange> optionalDate) {
-    HydraInsertBuilder builder = hydraBuilderFactory.insertBuilder(lang, ENDPOINT_NAME, types,
-        labels, comments, texts, new ArrayList<>());
-    builder.validateSubresources(Core.event, types);
+  /**
+   * Adds the materialized sort keys to all events that don't have them yet, for instance because
+   * they have been imported directly into the database. Events with several dates of the same
+   * kind get the earliest ascending and the latest descending key.
+   */
+  public void insertMissingSortDates() {
+    // The keys are resolved once in the inference cache, where events of all subtypes carry
+    // core:event, and then written as the same triples to both datasets
+    SelectBuilder select = new SelectBuilder();
+    ExprFactory ef = select.getExprFactory();
+    Node varAscending = NodeFactory.createVariable("ascending");
+    Node varDescending = NodeFactory.createVariable("descending");
+    Node varAscendingMin = NodeFactory.createVariable("ascendingMin");
+    Node varDescendingMax = NodeFactory.createVariable("descendingMax");
+    try {
+      select
+          .addVar(VAR_MAIN)
+          .addVar("min(" + varAscending + ")", varAscendingMin)
+          .addVar("max(" + varDescending + ")", varDescendingMax);
+    } catch (ParseException e) {
+      throw new IllegalStateException(e);
+    }
+    select
+        .addWhere(VAR_MAIN, RDF.type, Core.event)
+        .addFilter(ef.notexists(new WhereBuilder()
+            .addWhere(VAR_MAIN, Api.sortDateAscending, VAR_DATE)))
+        .addWhere(datesWhere())
+        .addBind(ef.coalesce(VAR_DATE_TIME_SORT, VAR_DATE_TIME_EXACT, VAR_DATE_TIME_LATEST,
+            VAR_DATE_TIME_EARLIEST, sortDateLiteral(Optional.empty(), POSITIVE_DEFAULT_DATE)),
+            varAscending)
+        .addBind(ef.coalesce(VAR_DATE_TIME_SORT, VAR_DATE_TIME_EXACT, VAR_DATE_TIME_EARLIEST,
+            VAR_DATE_TIME_LATEST, sortDateLiteral(Optional.empty(), NEGATIVE_DEFAULT_DATE)),
+            varDescending)
+        .addGroupBy(VAR_MAIN);
+    List<UpdateRequest> requests = new ArrayList<>();
+    List<QuerySolution> rows = new ArrayList<>();
+    jenaService.select(select, rows::add);
+    for (int i = 0; i < rows.size(); i += SORT_DATE_BATCH_SIZE) {
+      UpdateBuilder builder = new UpdateBuilder();
+      rows.subList(i, Math.min(i + SORT_DATE_BATCH_SIZE, rows.size())).forEach(row -> {
+        Resource event = row.getResource(VAR_MAIN.getName());
+        builder
+            .addInsert(event, Api.sortDateAscending, row.get(varAscendingMin.getName()))
+            .addInsert(event, Api.sortDateDescending, row.get(varDescendingMax.getName()));
+      });
+      requests.add(builder.buildRequest());
+    }
+    if (!requests.isEmpty()) {
+      jenaService.update(requests);
+    }
+  }
+
+  private static Literal sortDateLiteral(Optional<LocalDateTime> date, String defaultDate) {
+    return ResourceFactory.createTypedLiteral(
+        date.map(d -> d.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).orElse(defaultDate),
+        XSDDatatype.XSDdateTime);
+  }
+
+  /**
+   * Adds all checks of the event payload to the validation batch.
+   */
+  void validatePayload(ValidationBatch validation, List<Resource> types, List<Resource> authors,
+      Resource source, ResourceCouple mainParticipant, List<ResourceCouple> otherParticipants,
+      List<ResourceCouple> aspects, Optional<Resource> optionalPlace,
+      Optional<DateRange> optionalDate) {
+    validation.requireSubresources(Core.event, types);
     // Author
-    authors.forEach(author -> builder.validateType(Core.author, author));
+    authors.forEach(author -> validation.requireType(Core.author, author));
     // Source
-    builder.validateType(Core.source, source);
+    validation.requireType(Core.source, source);
     // Date
     optionalDate
         .ifPresent(date -> date.getStart().ifPresent(start -> date.getEnd().ifPresent(end -> {
@@ -687,9 +847,9 @@ public class EventRepository {
           }
         })));
     // Event main participant
-    builder.validateType(Core.person, mainParticipant.getObject());
+    validation.requireType(Core.person, mainParticipant.getObject());
     mainParticipant.getPredicate().ifPresent(predicate -> {
-      builder.validateSubnode(Core.hasMainParticipant, predicate);
+      validation.requireSubnode(Core.hasMainParticipant, predicate);
     });
     // Other event participants
     otherParticipants.forEach(participant -> {
@@ -697,22 +857,22 @@ public class EventRepository {
         throw new IllegalArgumentException(
             "The main participant is not allowed to occur in the list of other participants");
       }
-      builder.validateType(Core.actor, participant.getObject());
+      validation.requireType(Core.actor, participant.getObject());
       participant.getPredicate().ifPresent(predicate -> {
-        builder.validateNotSubnode(Core.hasMainParticipant, predicate);
-        builder.validateSubnode(Core.hasOtherParticipant, predicate);
+        validation.requireNotSubnode(Core.hasMainParticipant, predicate);
+        validation.requireSubnode(Core.hasOtherParticipant, predicate);
       });
     });
     // Event aspects
     aspects.forEach(aspect -> {
-      builder.validateType(Core.aspect, aspect.getObject());
+      validation.requireType(Core.aspect, aspect.getObject());
       aspect.getPredicate().ifPresent(predicate -> {
-        builder.validateSubnode(Core.usesAspect, predicate);
+        validation.requireSubnode(Core.usesAspect, predicate);
       });
     });
     // Event place
     optionalPlace.ifPresent(place -> {
-      builder.validateType(Core.place, place);
+      validation.requireType(Core.place, place);
     });
   }
 
@@ -720,9 +880,10 @@ public class EventRepository {
   public boolean isAuthor(UUID authorId, UUID eventId) {
     Resource event = ResourceFactory.createResource(urlBuilder.endpointUri(ENDPOINT_NAME, eventId));
     Resource author = ResourceFactory.createResource(urlBuilder.endpointUri("authors", authorId));
-    Path path = PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()),
-        PathFactory.pathLink(Core.isAuthoredBy.asNode()));
-    AskBuilder builder = new AskBuilder().addWhere(event, path, author);
-    return jenaService.ask(builder);
+    return jenaService.ask(IS_AUTHOR_TEMPLATE.bind(() -> {
+      Path path = PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()),
+          PathFactory.pathLink(Core.isAuthoredBy.asNode()));
+      return new AskBuilder().addWhere(VAR_MAIN, path, VAR_AUTHOR);
+    }, Map.of(VAR_MAIN, event, VAR_AUTHOR, author)));
   }
 }
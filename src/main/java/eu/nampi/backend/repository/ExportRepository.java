@@ -0,0 +1,156 @@
+package eu.nampi.backend.repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.jena.arq.querybuilder.ConstructBuilder;
+import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.path.Path;
+import org.apache.jena.sparql.path.PathFactory;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.vocabulary.RDF;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Skolemizer;
+import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Core;
+
+@Repository
+public class ExportRepository {
+
+  private static final Map<String, Resource> COLLECTIONS = Map.of(
+      "acts", Core.act,
+      "aspects", Core.aspect,
+      "events", Core.event,
+      "groups", Core.group,
+      "persons", Core.person,
+      "places", Core.place,
+      "sources", Core.source);
+
+  private static final int BATCH_SIZE = 500;
+  private static final Node VAR_MAIN = NodeFactory.createVariable("main");
+  private static final Node VAR_PREDICATE = NodeFactory.createVariable("predicate");
+  private static final Node VAR_OBJECT = NodeFactory.createVariable("object");
+  private static final Node VAR_NESTED = NodeFactory.createVariable("nested");
+  private static final Node VAR_NESTED_PREDICATE = NodeFactory.createVariable("nestedPredicate");
+  private static final Node VAR_NESTED_OBJECT = NodeFactory.createVariable("nestedObject");
+  private static final Node VAR_DATE_TIME = NodeFactory.createVariable("dateTime");
+
+  @Autowired
+  JenaService jenaService;
+
+  @Autowired
+  Skolemizer skolemizer;
+
+  /**
+   * Builds the query for all members of the collection. If a date is provided, only acts authored
+   * on or after it and events interpreted by these acts are exported.
+   */
+  public Query query(String collection, Optional<LocalDate> since) {
+    Resource type = Optional
+        .ofNullable(COLLECTIONS.get(collection))
+        .orElseThrow(() -> new IllegalArgumentException(
+            String.format("Unknown collection '%s'", collection)));
+    SelectBuilder builder = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_MAIN)
+        .addWhere(VAR_MAIN, RDF.type, type);
+    since.ifPresent(date -> {
+      ExprFactory ef = builder.getExprFactory();
+      builder
+          .addWhere(VAR_MAIN, authoredOn(type), VAR_DATE_TIME)
+          .addFilter(ef.ge(VAR_DATE_TIME, NodeFactory.createLiteral(
+              date.atStartOfDay().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+              XSDDatatype.XSDdateTime)));
+    });
+    return builder.build();
+  }
+
+  /**
+   * Writes the asserted statements about the members to the output. The members are resolved with
+   * inference one ordered page after the other, and the statements of each page are written before
+   * the next page is queried. Their statements are taken from the data together with the
+   * statements about blank node objects like dates and source locations. Internal api statements
+   * are left out and blank nodes are replaced with the skolem IRIs the change log uses.
+   */
+  public void export(Query query, StreamRDF output) {
+    output.start();
+    Optional<Resource> last = Optional.empty();
+    boolean full;
+    do {
+      List<Resource> page = new ArrayList<>(BATCH_SIZE);
+      jenaService.select(page(query, last), row -> page.add(row.getResource(VAR_MAIN.getName())));
+      if (!page.isEmpty()) {
+        Model batch = ModelFactory.createDefaultModel();
+        jenaService.constructData(statements(page), StreamRDFLib.graph(batch.getGraph()));
+        skolemizer.skolemize(batch).getGraph().find().forEachRemaining(output::triple);
+        last = Optional.of(page.get(page.size() - 1));
+      }
+      full = page.size() == BATCH_SIZE;
+    } while (full);
+    output.finish();
+  }
+
+  // The pages continue after the last member instead of using an offset, so no page needs to
+  // match the members of the previous pages again
+  private Query page(Query query, Optional<Resource> after) {
+    ExprFactory ef = new ExprFactory();
+    Query page = query.cloneQuery();
+    after.ifPresent(member -> {
+      ElementGroup group = new ElementGroup();
+      group.addElement(page.getQueryPattern());
+      group.addElementFilter(new ElementFilter(ef.gt(ef.str(VAR_MAIN), member.getURI())));
+      page.setQueryPattern(group);
+    });
+    page.addOrderBy(ef.str(VAR_MAIN), Query.ORDER_ASCENDING);
+    page.setLimit(BATCH_SIZE);
+    return page;
+  }
+
+  private Query statements(List<Resource> members) {
+    ConstructBuilder builder = new ConstructBuilder();
+    ExprFactory ef = builder.getExprFactory();
+    // The nested statements are matched in their own branch so no statement is constructed twice
+    return builder
+        .addConstruct(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT)
+        .addConstruct(VAR_NESTED, VAR_NESTED_PREDICATE, VAR_NESTED_OBJECT)
+        .addWhereValueVar(VAR_MAIN, members.toArray())
+        .addWhere(new WhereBuilder()
+            .addWhere(VAR_MAIN, VAR_PREDICATE, VAR_OBJECT)
+            .addFilter(ef.not(ef.strstarts(ef.str(VAR_PREDICATE), Api.getURI())))
+            .addUnion(new WhereBuilder()
+                .addWhere(VAR_MAIN, VAR_PREDICATE, VAR_NESTED)
+                .addFilter(ef.isBlank(VAR_NESTED))
+                .addWhere(VAR_NESTED, VAR_NESTED_PREDICATE, VAR_NESTED_OBJECT)))
+        .build();
+  }
+
+  private Path authoredOn(Resource type) {
+    Path path = PathFactory.pathSeq(PathFactory.pathLink(Core.isAuthoredOn.asNode()),
+        PathFactory.pathLink(Core.hasDateTime.asNode()));
+    if (type.equals(Core.act)) {
+      return path;
+    } else if (type.equals(Core.event)) {
+      return PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()), path);
+    } else {
+      throw new IllegalArgumentException(
+          "The 'since' parameter is only supported for acts and events");
+    }
+  }
+}
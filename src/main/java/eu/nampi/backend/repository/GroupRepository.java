@@ -6,10 +6,11 @@ import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_TEXT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_TYPE;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.BiFunction;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
@@ -17,12 +18,14 @@ import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.sparql.path.Path;
 import org.apache.jena.sparql.path.PathFactory;
-import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,14 +33,20 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 import eu.nampi.backend.exception.DeletionNotPermittedException;
+import eu.nampi.backend.exception.NotFoundException;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.queryBuilder.HydraBatchBuilder;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
 import eu.nampi.backend.queryBuilder.HydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
+import eu.nampi.backend.service.GroupIndexService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.util.UrlBuilder;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 
@@ -48,7 +57,17 @@ public class GroupRepository {
   @Autowired
   HydraBuilderFactory hydraBuilderFactory;
 
+  @Autowired
+  GroupIndexService groupIndexService;
+
+  @Autowired
+  Serializer serializer;
+
+  @Autowired
+  UrlBuilder urlBuilder;
+
   private static final String ENDPOINT_NAME = "groups";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
   private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
   private static final Node VAR_PART_OF = NodeFactory.createVariable("partOf");
   private static final Node VAR_PART_OF_LABEL = NodeFactory.createVariable("partOfLabel");
@@ -106,8 +125,8 @@ public class GroupRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #partOf, #hasPart}")
-  public String findAll(QueryParameters params, Lang lang, Optional<Resource> partOf,
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems, #partOf, #hasPart}")
+  public byte[] findAll(QueryParameters params, Lang lang, Optional<Resource> partOf,
       Optional<Resource> hasPart) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.group, Api.groupOrderByProp, params, false);
@@ -135,33 +154,56 @@ public class GroupRepository {
         .addWhere(VAR_MAIN, Core.hasPart, VAR_HAS_PART)
         .addFilter(ef.sameTerm(VAR_HAS_PART, hasPartType))
         .addWhere(VAR_HAS_PART, RDFS.label, VAR_HAS_PART_LABEL));
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.group);
-    ExprFactory ef = builder.ef;
-    builder.coreData
-        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
-        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS)
-        .addOptional(new WhereBuilder()
-            .addWhere(VAR_MAIN, Core.isPartOf, VAR_PART_OF)
-            .addWhere(VAR_PART_OF, RDF.type, VAR_PART_OF_TYPE)
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_PART_OF_TYPE), OWL.getURI())))
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_PART_OF_TYPE), RDFS.getURI())))
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_PART_OF_TYPE), RDF.getURI())))
-            .addWhere(VAR_PART_OF, RDFS.label, VAR_PART_OF_LABEL))
-        .addOptional(new WhereBuilder()
-            .addWhere(VAR_MAIN, Core.hasPart, VAR_HAS_PART)
-            .addWhere(VAR_HAS_PART, RDF.type, VAR_HAS_PART_TYPE)
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_HAS_PART_TYPE), OWL.getURI())))
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_HAS_PART_TYPE), RDFS.getURI())))
-            .addFilter(ef.not(ef.strstarts(ef.str(VAR_HAS_PART_TYPE), RDF.getURI())))
-            .addWhere(VAR_HAS_PART, RDFS.label, VAR_HAS_PART_LABEL));
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> addData(coreData), ROW_MAPPER, lang);
+  }
+
+  public byte[] findMany(Lang lang, List<UUID> ids) {
+    HydraBatchBuilder builder =
+        hydraBuilderFactory.batchBuilder(ENDPOINT_NAME, Core.group, lang, ids);
+    addData(builder.coreData);
     return builder.query(ROW_MAPPER, lang);
   }
 
+  @Cacheable(key = "{'tree', #lang, #id, #ancestors, #descendants, #depth}")
+  public byte[] findTree(Lang lang, UUID id, boolean ancestors, boolean descendants, int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("The depth must not be negative");
+    }
+    Resource root = ResourceFactory.createResource(urlBuilder.endpointUri(ENDPOINT_NAME, id));
+    if (!groupIndexService.contains(root)) {
+      throw new NotFoundException();
+    }
+    Model model = ModelFactory.createDefaultModel()
+        .setNsPrefix("core", Core.getURI())
+        .setNsPrefix("rdf", RDF.getURI())
+        .setNsPrefix("rdfs", RDFS.getURI());
+    addTree(model, ancestors ? groupIndexService.ancestors(root, depth) : Map.of(),
+        Core.isPartOf);
+    addTree(model, descendants ? groupIndexService.descendants(root, depth) : Map.of(),
+        Core.hasPart);
+    addGroup(model, root);
+    return serializer.serialize(model, lang, root);
+  }
+
+  private void addTree(Model model, Map<Resource, Set<Resource>> tree, Property relation) {
+    tree.forEach((group, related) -> {
+      addGroup(model, group);
+      related.forEach(other -> model.add(group, relation, other));
+    });
+  }
+
+  private void addGroup(Model model, Resource group) {
+    model.add(group, RDF.type, Core.group);
+    groupIndexService.labels(group).forEach(label -> model.add(group, RDFS.label, label));
+  }
+
   public InsertResult insert(Lang lang, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs, List<Resource> partOf) {
     HydraInsertBuilder builder = hydraBuilderFactory.insertBuilder(lang, ENDPOINT_NAME, types,
@@ -172,10 +214,11 @@ public class GroupRepository {
       builder.addInsert(builder.root, Core.isPartOf, parent);
     });
     builder.build();
-    return new InsertResult(builder.root, findOne(lang, builder.id));
+    return new InsertResult(builder.root,
+        hydraBuilderFactory.writeResultBuilder(Core.group, builder).query(lang));
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs, List<Resource> partOf) {
     HydraUpdateBuilder builder = hydraBuilderFactory.updateBuilder(lang, id, ENDPOINT_NAME, types,
         labels, comments, texts, sameAs);
@@ -185,18 +228,30 @@ public class GroupRepository {
       builder.addInsert(builder.root, Core.isPartOf, parent);
     });
     builder.build();
-    return findOne(lang, builder.id);
+    return hydraBuilderFactory.writeResultBuilder(Core.group, builder).query(lang);
   }
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.group);
-    ExprFactory ef = builder.updateBuilder.getExprFactory();
-    Node varProperty = NodeFactory.createVariable("property");
-    if (builder.ask(new AskBuilder()
-        .addWhere("?item", varProperty, builder.root)
-        .addFilter(ef.in(varProperty, Core.hasParticipant, Core.isPartOf)))) {
+    if (!builder.unlessReferencedBy(Core.hasParticipant, Core.isPartOf).build()
+        && builder.isReferenced()) {
       throw new DeletionNotPermittedException("The group to be deleted is still in use");
     }
-    builder.build();
+  }
+
+  private void addData(WhereBuilder builder) {
+    builder
+        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
+        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS)
+        .addOptional(new WhereBuilder()
+            .addWhere(VAR_MAIN, Core.isPartOf, VAR_PART_OF)
+            .addWhere(VAR_PART_OF, RDF.type, VAR_PART_OF_TYPE)
+            .addWhere(VAR_PART_OF_TYPE, Api.displayable, true)
+            .addWhere(VAR_PART_OF, RDFS.label, VAR_PART_OF_LABEL))
+        .addOptional(new WhereBuilder()
+            .addWhere(VAR_MAIN, Core.hasPart, VAR_HAS_PART)
+            .addWhere(VAR_HAS_PART, RDF.type, VAR_HAS_PART_TYPE)
+            .addWhere(VAR_HAS_PART_TYPE, Api.displayable, true)
+            .addWhere(VAR_HAS_PART, RDFS.label, VAR_HAS_PART_LABEL));
   }
 }
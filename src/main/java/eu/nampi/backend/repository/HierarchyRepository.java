@@ -3,21 +3,28 @@ package eu.nampi.backend.repository;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_COMMENT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_LABEL;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.sparql.expr.Expr;
-import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,9 +34,13 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
+import eu.nampi.backend.service.HierarchyIndexService;
 import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
 import eu.nampi.backend.util.UrlBuilder;
 import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Core;
 
 @Repository
 @CacheConfig(cacheNames = "hierarchies")
@@ -44,6 +55,12 @@ public class HierarchyRepository {
   @Autowired
   UrlBuilder urlBuilder;
 
+  @Autowired
+  Serializer serializer;
+
+  @Autowired
+  HierarchyIndexService hierarchyIndexService;
+
   @Value("${nampi.crm-prefix}")
   String crmPrefix;
 
@@ -53,71 +70,136 @@ public class HierarchyRepository {
   private static final Node VAR_PARENT = NodeFactory.createVariable("parent");
   private static final Node VAR_PARENT_LABEL = NodeFactory.createVariable("parentLabel");
   private static final Node VAR_PARENT_COMMENT = NodeFactory.createVariable("parentComment");
+  private static final Node VAR_PREDICATE = NodeFactory.createVariable("p");
+  private static final QueryTemplate IS_SUBNODE_TEMPLATE = new QueryTemplate();
+  private static final QueryTemplate INDIVIDUAL_TEMPLATE = new QueryTemplate();
 
   @Cacheable(key = "{#parent, #child}")
   public boolean isSubnode(RDFNode parent, RDFNode child) {
-    AskBuilder builder = new AskBuilder();
-    ExprFactory ef = builder.getExprFactory();
-    Node predicate = NodeFactory.createVariable("p");
-    builder
-        .addWhere(child, predicate, parent)
-        .addFilter(ef.in(predicate, RDFS.subClassOf, RDFS.subPropertyOf));
-    return jenaService.ask(builder);
+    return jenaService.ask(IS_SUBNODE_TEMPLATE.bind(() -> {
+      AskBuilder builder = new AskBuilder();
+      ExprFactory ef = builder.getExprFactory();
+      return builder
+          .addWhere(VAR_CHILD, VAR_PREDICATE, VAR_PARENT)
+          .addFilter(ef.in(VAR_PREDICATE, RDFS.subClassOf, RDFS.subPropertyOf));
+    }, Map.of(VAR_PARENT, parent, VAR_CHILD, child)));
+  }
+
+  /**
+   * The node itself and all its subclasses or subproperties.
+   */
+  public Set<Resource> findDescendants(Resource node) {
+    // The database is only queried if the hierarchy index is not available
+    Optional<Set<Resource>> indexed = hierarchyIndexService
+        .descendantTree(node)
+        .map(tree -> new HashSet<>(tree.keySet()));
+    return indexed.orElseGet(() -> {
+      Set<Resource> descendants = new HashSet<>();
+      descendants.add(node);
+      SelectBuilder builder = new SelectBuilder().setDistinct(true).addVar(VAR_CHILD);
+      ExprFactory ef = builder.getExprFactory();
+      builder
+          .addWhere(VAR_CHILD, VAR_PREDICATE, node)
+          .addFilter(ef.in(VAR_PREDICATE, RDFS.subClassOf, RDFS.subPropertyOf));
+      jenaService.select(builder,
+          row -> descendants.add(row.getResource(VAR_CHILD.getName())));
+      return descendants;
+    });
   }
 
   @Cacheable(key = "{#lang, #iri, #descendants}")
-  public String findHierarchy(Lang lang, String iri, boolean descendants) {
+  public byte[] findHierarchy(Lang lang, String iri, boolean descendants) {
+    // The database is only queried if the hierarchy index is not available
+    Resource root = ResourceFactory.createResource(iri);
     if (descendants) {
-      return findDescendants(lang, iri);
+      return hierarchyIndexService
+          .descendantTree(root)
+          .map(tree -> serializeTree(lang, root, tree, Api.ancestorOf,
+              ModelFactory.createDefaultModel()))
+          .orElseGet(() -> findDescendants(lang, iri));
     } else {
-      return findAncestors(lang, iri);
+      Model individual = ModelFactory.createDefaultModel();
+      List<Resource> types = new ArrayList<>();
+      if (!hierarchyIndexService.contains(root)) {
+        findIndividual(root, individual, types);
+      }
+      return hierarchyIndexService
+          .ancestorTree(root, types, crmPrefix)
+          .map(tree -> serializeTree(lang, root, tree, Api.descendantOf, individual))
+          .orElseGet(() -> findAncestors(lang, iri));
     }
   }
 
-  private String findAncestors(Lang lang, String iri) {
+  private void findIndividual(Resource root, Model model, List<Resource> types) {
+    jenaService.select(INDIVIDUAL_TEMPLATE.bind(() -> new SelectBuilder()
+        .addVar(VAR_CHILD)
+        .addVar(VAR_LABEL)
+        .addVar(VAR_COMMENT)
+        .addWhere(VAR_MAIN, RDF.type, VAR_CHILD)
+        .addOptional(VAR_MAIN, RDFS.label, VAR_LABEL)
+        .addOptional(VAR_MAIN, RDFS.comment, VAR_COMMENT), Map.of(VAR_MAIN, root)), row -> {
+          Optional
+              .ofNullable(row.getResource(VAR_CHILD.toString()))
+              .filter(type -> !types.contains(type))
+              .ifPresent(types::add);
+          Optional
+              .ofNullable(row.getLiteral(VAR_LABEL.toString()))
+              .ifPresent(literal -> model.add(root, RDFS.label, literal));
+          Optional
+              .ofNullable(row.getLiteral(VAR_COMMENT.toString()))
+              .ifPresent(literal -> model.add(root, RDFS.comment, literal));
+        });
+  }
+
+  private byte[] serializeTree(Lang lang, Resource root, Map<Resource, Set<Resource>> tree,
+      Property relation, Model additional) {
+    Resource base = ResourceFactory.createResource(urlBuilder.endpointUri("hierarchy"));
+    Model model = ModelFactory.createDefaultModel()
+        .setNsPrefix("crm", crmPrefix)
+        .setNsPrefix("api", Api.getURI())
+        .setNsPrefix("core", Core.getURI())
+        .setNsPrefix("rdf", RDF.getURI())
+        .setNsPrefix("rdfs", RDFS.getURI())
+        .add(base, RDF.type, Api.hierarchy)
+        .add(base, Api.hierarchyRoot, root)
+        .add(root, RDF.type, RDFS.Resource)
+        .add(additional);
+    tree.forEach((node, related) -> {
+      model.add(node, RDF.type, RDFS.Resource);
+      hierarchyIndexService.labels(node).forEach(label -> model.add(node, RDFS.label, label));
+      hierarchyIndexService.comments(node)
+          .forEach(comment -> model.add(node, RDFS.comment, comment));
+      related.forEach(other -> model.add(node, relation, other));
+    });
+    return serializer.serialize(model, lang, base);
+  }
+
+  private byte[] findAncestors(Lang lang, String iri) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(RDFS.Resource, iri, false);
     ExprFactory ef = builder.ef;
-    Expr childNotRdf = ef.not(ef.strstarts(ef.str(VAR_CHILD), RDF.getURI()));
-    Expr childNotRdfs = ef.not(ef.strstarts(ef.str(VAR_CHILD), RDFS.getURI()));
-    Expr childNotOwl = ef.not(ef.strstarts(ef.str(VAR_CHILD), OWL.getURI()));
     Expr childNotCrm = ef.not(ef.strstarts(ef.str(VAR_CHILD), crmPrefix));
-    Expr parentNotRdf = ef.not(ef.strstarts(ef.str(VAR_PARENT), RDF.getURI()));
-    Expr parentNotRdfs = ef.not(ef.strstarts(ef.str(VAR_PARENT), RDFS.getURI()));
-    Expr parentNotOwl = ef.not(ef.strstarts(ef.str(VAR_PARENT), OWL.getURI()));
     Expr parentNotCrm = ef.not(ef.strstarts(ef.str(VAR_PARENT), crmPrefix));
     builder.coreData
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, RDFS.subClassOf, VAR_CHILD)
-            .addFilter(childNotRdf)
-            .addFilter(childNotRdfs)
-            .addFilter(childNotOwl)
+            .addWhere(VAR_CHILD, Api.displayable, true)
             .addFilter(childNotCrm)
             .addWhere(VAR_CHILD, RDFS.subClassOf, VAR_PARENT)
-            .addFilter(parentNotRdf)
-            .addFilter(parentNotRdfs)
-            .addFilter(parentNotOwl)
+            .addWhere(VAR_PARENT, Api.displayable, true)
             .addFilter(parentNotCrm))
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, RDFS.subPropertyOf, VAR_CHILD)
-            .addFilter(childNotRdf)
-            .addFilter(childNotRdfs)
-            .addFilter(childNotOwl)
+            .addWhere(VAR_CHILD, Api.displayable, true)
             .addFilter(childNotCrm)
             .addWhere(VAR_CHILD, RDFS.subPropertyOf, VAR_PARENT)
-            .addFilter(parentNotRdf)
-            .addFilter(parentNotRdfs)
-            .addFilter(parentNotOwl)
+            .addWhere(VAR_PARENT, Api.displayable, true)
             .addFilter(parentNotCrm))
         .addOptional(new WhereBuilder()
             .addWhere(VAR_MAIN, RDF.type, VAR_CHILD)
-            .addFilter(childNotRdf)
-            .addFilter(childNotRdfs)
-            .addFilter(childNotOwl)
+            .addWhere(VAR_CHILD, Api.displayable, true)
             .addFilter(childNotCrm)
             .addWhere(VAR_CHILD, RDFS.subClassOf, VAR_PARENT)
-            .addFilter(parentNotRdf)
-            .addFilter(parentNotRdfs)
-            .addFilter(parentNotOwl)
+            .addWhere(VAR_PARENT, Api.displayable, true)
             .addFilter(parentNotCrm))
         .addOptional(VAR_CHILD, RDFS.label, VAR_CHILD_LABEL)
         .addOptional(VAR_CHILD, RDFS.comment, VAR_CHILD_COMMENT)
@@ -164,7 +246,7 @@ public class HierarchyRepository {
     return builder.query(rowMapper, lang, base);
   }
 
-  private String findDescendants(Lang lang, String iri) {
+  private byte[] findDescendants(Lang lang, String iri) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(RDFS.Resource, iri, false);
     builder.coreData
         .addOptional(new WhereBuilder()
@@ -0,0 +1,259 @@
+package eu.nampi.backend.repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.sparql.modify.request.QuadDataAcc;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
+import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+import eu.nampi.backend.model.AspectMutationPayload;
+import eu.nampi.backend.model.EventMutationPayload;
+import eu.nampi.backend.model.GroupMutationPayload;
+import eu.nampi.backend.model.ImportEntry;
+import eu.nampi.backend.model.PersonMutationPayload;
+import eu.nampi.backend.model.PlaceMutationPayload;
+import eu.nampi.backend.model.SourceMutationPayload;
+import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
+import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
+import eu.nampi.backend.queryBuilder.ValidationBatch;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.util.UrlBuilder;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+@Repository
+public class ImportRepository {
+
+  private static final int MAX_ENTRIES = 50000;
+  private static final String ENDPOINT_NAME = "import";
+
+  private static final Map<String, Resource> COLLECTIONS = Map.of(
+      "aspects", Core.aspect,
+      "events", Core.event,
+      "groups", Core.group,
+      "persons", Core.person,
+      "places", Core.place,
+      "sources", Core.source);
+
+  @Autowired
+  ActRepository actRepository;
+
+  @Autowired
+  EventRepository eventRepository;
+
+  @Autowired
+  HydraBuilderFactory hydraBuilderFactory;
+
+  @Autowired
+  JenaService jenaService;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  PlaceRepository placeRepository;
+
+  @Autowired
+  Serializer serializer;
+
+  @Autowired
+  UrlBuilder urlBuilder;
+
+  @Autowired
+  Validator validator;
+
+  /**
+   * Creates the entities of all lines, each one a JSON import entry with the name of the
+   * collection, an optional id and the same payload the collection endpoint accepts. The whole
+   * batch is validated before anything is written, provided ids must not be in use yet. All entries
+   * are then written in a single update, so either all of them or none are created.
+   */
+  public byte[] importLines(Lang lang, List<String> lines) {
+    ValidationBatch validation = hydraBuilderFactory.validationBatch();
+    List<List<HydraInsertBuilder>> entries = new ArrayList<>();
+    Set<UUID> ids = new HashSet<>();
+    for (int index = 0; index < lines.size(); index++) {
+      String line = lines.get(index);
+      if (line.isBlank()) {
+        continue;
+      }
+      if (entries.size() == MAX_ENTRIES) {
+        throw new IllegalArgumentException(
+            "No more than " + MAX_ENTRIES + " entries can be imported at once");
+      }
+      String context = String.format("Line %d: ", index + 1);
+      try {
+        ImportEntry entry = read(line, ImportEntry.class);
+        UUID id = Optional.ofNullable(entry.getId()).orElseGet(UUID::randomUUID);
+        if (!ids.add(id)) {
+          throw new IllegalArgumentException(String.format("The id '%s' is not unique", id));
+        }
+        List<HydraInsertBuilder> builders = prepare(lang, entry, id, validation.context(context));
+        if (entry.getId() != null) {
+          validation.requireAbsent(builders.get(0).root);
+        }
+        entries.add(builders);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(context + e.getMessage(), e);
+      }
+    }
+    validation.validate();
+    // The inserted data of all entries is merged into one operation of one request
+    QuadDataAcc inserts = new QuadDataAcc();
+    UpdateRequest request = new UpdateRequest(new UpdateDataInsert(inserts));
+    entries
+        .stream()
+        .flatMap(List::stream)
+        .flatMap(builder -> builder.updateBuilder.buildRequest().getOperations().stream())
+        .forEach(update -> {
+          if (update instanceof UpdateDataInsert) {
+            ((UpdateDataInsert) update).getQuads().forEach(inserts::addQuad);
+          } else {
+            request.add(update);
+          }
+        });
+    jenaService.update(List.of(request));
+    Model model = ModelFactory.createDefaultModel()
+        .setNsPrefix("hydra", Hydra.getURI())
+        .setNsPrefix("rdf", RDF.getURI())
+        .setNsPrefix("rdfs", RDFS.getURI());
+    Resource root = ResourceFactory.createResource(urlBuilder.endpointUri(ENDPOINT_NAME));
+    model.add(root, RDF.type, Hydra.Collection);
+    // The first builder of each entry inserts the imported entity itself
+    entries.forEach(builders -> model.add(root, Hydra.member, builders.get(0).root));
+    model.addLiteral(root, Hydra.totalItems, ResourceFactory
+        .createTypedLiteral(String.valueOf(entries.size()), XSDDatatype.XSDinteger));
+    return serializer.serialize(model, lang, root);
+  }
+
+  private List<HydraInsertBuilder> prepare(Lang lang, ImportEntry entry, UUID id,
+      ValidationBatch validation) {
+    String collection = entry.getCollection();
+    Resource type = Optional
+        .ofNullable(COLLECTIONS.get(collection))
+        .orElseThrow(() -> new IllegalArgumentException(
+            String.format("Unknown collection '%s'", collection)));
+    List<HydraInsertBuilder> builders = new ArrayList<>();
+    List<Resource> types;
+    if (type.equals(Core.event)) {
+      EventMutationPayload payload = read(entry, EventMutationPayload.class);
+      types = payload.getTypes();
+      Optional<Literal> sourceLocation = Optional
+          .ofNullable(payload.getSourceLocation())
+          .filter(location -> !location.getString().isBlank());
+      eventRepository.validatePayload(validation, types, payload.getAuthors(),
+          payload.getSource(), payload.getMainParticipant(),
+          asList(payload.getOtherParticipants()), asList(payload.getAspects()),
+          Optional.ofNullable(payload.getPlace()), Optional.ofNullable(payload.getDate()));
+      HydraInsertBuilder event = eventRepository.insertBuilder(Optional.of(id), lang, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          payload.getMainParticipant(), asList(payload.getOtherParticipants()),
+          asList(payload.getAspects()), Optional.ofNullable(payload.getPlace()),
+          Optional.ofNullable(payload.getDate()));
+      HydraInsertBuilder act = actRepository.insertBuilder(lang, payload.getAuthors(),
+          payload.getSource(), sourceLocation);
+      event.addInsert(event.root, Core.isInterpretationOf, act.root);
+      builders.add(event);
+      builders.add(act);
+    } else if (type.equals(Core.group)) {
+      GroupMutationPayload payload = read(entry, GroupMutationPayload.class);
+      types = payload.getTypes();
+      HydraInsertBuilder group = hydraBuilderFactory.insertBuilder(lang, id, collection, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          asList(payload.getSameAs()));
+      asList(payload.getPartOf()).forEach(parent -> {
+        validation.requireType(Core.group, parent);
+        group.addInsert(group.root, Core.isPartOf, parent);
+      });
+      builders.add(group);
+    } else if (type.equals(Core.place)) {
+      PlaceMutationPayload payload = read(entry, PlaceMutationPayload.class);
+      types = payload.getTypes();
+      HydraInsertBuilder place = hydraBuilderFactory.insertBuilder(lang, id, collection, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          asList(payload.getSameAs()));
+      placeRepository.addPlace(place, Optional.ofNullable(payload.getLatitude()),
+          Optional.ofNullable(payload.getLogitude()));
+      builders.add(place);
+    } else if (type.equals(Core.person)) {
+      PersonMutationPayload payload = read(entry, PersonMutationPayload.class);
+      types = payload.getTypes();
+      builders.add(hydraBuilderFactory.insertBuilder(lang, id, collection, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          asList(payload.getSameAs())));
+    } else if (type.equals(Core.aspect)) {
+      AspectMutationPayload payload = read(entry, AspectMutationPayload.class);
+      types = payload.getTypes();
+      builders.add(hydraBuilderFactory.insertBuilder(lang, id, collection, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          asList(payload.getSameAs())));
+    } else {
+      SourceMutationPayload payload = read(entry, SourceMutationPayload.class);
+      types = payload.getTypes();
+      builders.add(hydraBuilderFactory.insertBuilder(lang, id, collection, types,
+          payload.getLabels(), asList(payload.getComments()), asList(payload.getTexts()),
+          asList(payload.getSameAs())));
+    }
+    if (!type.equals(Core.event)) {
+      validation.requireSubresources(type, types);
+    }
+    // Later entries of the batch may already refer to the entity
+    validation.declare(builders.get(0).root, types);
+    return builders;
+  }
+
+  private <T> T read(ImportEntry entry, Class<T> type) {
+    try {
+      T payload = objectMapper.treeToValue(entry.getPayload(), type);
+      Set<ConstraintViolation<T>> violations = validator.validate(payload);
+      if (!violations.isEmpty()) {
+        throw new IllegalArgumentException(violations
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", ")));
+      }
+      return payload;
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Incorrect payload", e);
+    }
+  }
+
+  private <T> T read(String line, Class<T> type) {
+    try {
+      T value = objectMapper.readValue(line, type);
+      if (!validator.validate(value).isEmpty()) {
+        throw new IllegalArgumentException("The collection and the payload are required");
+      }
+      return value;
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Incorrect JSON", e);
+    }
+  }
+
+  private <T> List<T> asList(@Nullable List<T> value) {
+    return value == null ? new ArrayList<>() : value;
+  }
+}
@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.BiFunction;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
@@ -32,12 +31,14 @@ import org.springframework.stereotype.Repository;
 import eu.nampi.backend.exception.DeletionNotPermittedException;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.queryBuilder.HydraBatchBuilder;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
 import eu.nampi.backend.queryBuilder.HydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 
@@ -49,6 +50,7 @@ public class PersonRepository {
   HydraBuilderFactory hydraBuilderFactory;
 
   private static final String ENDPOINT_NAME = "persons";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
   private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
   private static final String PREF_BIRTH = "birth";
   private static final String PREF_DEATH = "death";
@@ -83,6 +85,18 @@ public class PersonRepository {
     return main;
   };
 
+  private static final BiFunction<Model, QuerySolution, RDFNode> BIRTH_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
+    addEvent(model, row, main, PREF_BIRTH, Core.isBornIn);
+    return main;
+  };
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> DEATH_MAPPER = (model, row) -> {
+    Resource main = row.getResource(VAR_MAIN.toString());
+    addEvent(model, row, main, PREF_DEATH, Core.diesIn);
+    return main;
+  };
+
   private static final void addEvent(Model model, QuerySolution row, Resource main, String base,
       Property type) {
     Optional
@@ -126,8 +140,8 @@ public class PersonRepository {
   }
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #aspect}")
-  public String findAll(QueryParameters params, Lang lang, Optional<Resource> aspect) {
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems, #params.fields, #aspect}")
+  public byte[] findAll(QueryParameters params, Lang lang, Optional<Resource> aspect) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.person, Api.personOrderByProp, params, false);
     ExprFactory ef = builder.ef;
@@ -146,13 +160,27 @@ public class PersonRepository {
           PathFactory.pathLink(Core.usesAspect.asNode()));
       builder.coreData.addWhere(VAR_MAIN, path, resAspect);
     });
-    builder.extendedData.addWhere(dataWhere());
+    // The birth and death data is queried separately and can be left out with the fields parameter
+    builder.extendedData
+        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
+        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS);
+    builder
+        .addHydration(PREF_BIRTH, eventWhere(PREF_BIRTH, Core.isBornIn), BIRTH_MAPPER)
+        .addHydration(PREF_DEATH, eventWhere(PREF_DEATH, Core.diesIn), DEATH_MAPPER)
+        .useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.person);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> coreData.addWhere(dataWhere()), ROW_MAPPER,
+        lang);
+  }
+
+  public byte[] findMany(Lang lang, List<UUID> ids) {
+    HydraBatchBuilder builder =
+        hydraBuilderFactory.batchBuilder(ENDPOINT_NAME, Core.person, lang, ids);
     builder.coreData.addWhere(dataWhere());
     return builder.query(ROW_MAPPER, lang);
   }
@@ -163,24 +191,24 @@ public class PersonRepository {
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.person, types);
     builder.build();
-    return new InsertResult(builder.root, findOne(lang, builder.id));
+    return new InsertResult(builder.root,
+        hydraBuilderFactory.writeResultBuilder(Core.person, builder).query(lang));
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs) {
     HydraUpdateBuilder builder = hydraBuilderFactory.updateBuilder(lang, id, ENDPOINT_NAME, types,
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.person, types);
     builder.build();
-    return findOne(lang, builder.id);
+    return hydraBuilderFactory.writeResultBuilder(Core.person, builder).query(lang);
   }
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.person);
-    if (builder.ask(new AskBuilder().addWhere("?event", Core.hasParticipant, builder.root))) {
+    if (!builder.unlessReferencedBy(Core.hasParticipant).build() && builder.isReferenced()) {
       throw new DeletionNotPermittedException("The person to be deleted is still in use");
     }
-    builder.build();
   }
 
   private WhereBuilder dataWhere() {
@@ -9,8 +9,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.BiFunction;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
@@ -32,12 +32,14 @@ import eu.nampi.backend.exception.DeletionNotPermittedException;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
 import eu.nampi.backend.queryBuilder.AbstractHydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.HydraBatchBuilder;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
 import eu.nampi.backend.queryBuilder.HydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 
@@ -49,6 +51,7 @@ public class PlaceRepository {
   HydraBuilderFactory hydraBuilderFactory;
 
   private static final String ENDPOINT_NAME = "places";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
   private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
   private static final Node VAR_LATITUDE = NodeFactory.createVariable("latitude");
   private static final Node VAR_LONGITUDE = NodeFactory.createVariable("longitude");
@@ -86,8 +89,8 @@ public class PlaceRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text}")
-  public String findAll(QueryParameters params, Lang lang) {
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems}")
+  public byte[] findAll(QueryParameters params, Lang lang) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.place, Api.placeOrderByProp, params, false);
     ExprFactory ef = builder.ef;
@@ -104,17 +107,20 @@ public class PlaceRepository {
       builder.coreData.addOptional(VAR_MAIN, path, varSearchString)
           .addFilter(ef.regex(varSearchString, params.getText().get(), "i"));
     });
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.place);
-    builder.coreData
-        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
-        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS)
-        .addOptional(VAR_MAIN, Core.hasLatitude, VAR_LATITUDE)
-        .addOptional(VAR_MAIN, Core.hasLongitude, VAR_LONGITUDE);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> addData(coreData), ROW_MAPPER, lang);
+  }
+
+  public byte[] findMany(Lang lang, List<UUID> ids) {
+    HydraBatchBuilder builder =
+        hydraBuilderFactory.batchBuilder(ENDPOINT_NAME, Core.place, lang, ids);
+    addData(builder.coreData);
     return builder.query(ROW_MAPPER, lang);
   }
 
@@ -126,10 +132,11 @@ public class PlaceRepository {
     builder.validateSubresources(Core.place, types);
     addPlace(builder, optionalLatitude, optionalLongitude);
     builder.build();
-    return new InsertResult(builder.root, findOne(lang, builder.id));
+    return new InsertResult(builder.root,
+        hydraBuilderFactory.writeResultBuilder(Core.place, builder).query(lang));
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs,
       Optional<Double> optionalLatitude, Optional<Double> optionalLongitude) {
     HydraUpdateBuilder builder = hydraBuilderFactory.updateBuilder(lang, id, ENDPOINT_NAME, types,
@@ -137,10 +144,10 @@ public class PlaceRepository {
     builder.validateSubresources(Core.place, types);
     addPlace(builder, optionalLatitude, optionalLongitude);
     builder.build();
-    return findOne(lang, builder.id);
+    return hydraBuilderFactory.writeResultBuilder(Core.place, builder).query(lang);
   }
 
-  private void addPlace(AbstractHydraUpdateBuilder builder, Optional<Double> optionalLatitude,
+  void addPlace(AbstractHydraUpdateBuilder builder, Optional<Double> optionalLatitude,
       Optional<Double> optionalLongitude) {
     if (optionalLatitude.isPresent() || optionalLongitude.isPresent()) {
       if (optionalLatitude.isEmpty() && optionalLongitude.isPresent()) {
@@ -170,9 +177,16 @@ public class PlaceRepository {
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.place);
-    if (builder.ask(new AskBuilder().addWhere("?event", Core.takesPlaceAt, builder.root))) {
+    if (!builder.unlessReferencedBy(Core.takesPlaceAt).build() && builder.isReferenced()) {
       throw new DeletionNotPermittedException("The place to be deleted is still in use");
     }
-    builder.build();
+  }
+
+  private void addData(WhereBuilder builder) {
+    builder
+        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
+        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS)
+        .addOptional(VAR_MAIN, Core.hasLatitude, VAR_LATITUDE)
+        .addOptional(VAR_MAIN, Core.hasLongitude, VAR_LONGITUDE);
   }
 }
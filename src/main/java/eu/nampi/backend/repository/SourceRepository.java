@@ -9,8 +9,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.BiFunction;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
@@ -30,12 +30,14 @@ import org.springframework.stereotype.Repository;
 import eu.nampi.backend.exception.DeletionNotPermittedException;
 import eu.nampi.backend.model.InsertResult;
 import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.queryBuilder.HydraBatchBuilder;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
 import eu.nampi.backend.queryBuilder.HydraDeleteBuilder;
 import eu.nampi.backend.queryBuilder.HydraInsertBuilder;
 import eu.nampi.backend.queryBuilder.HydraSingleBuilder;
 import eu.nampi.backend.queryBuilder.HydraUpdateBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 
@@ -47,6 +49,7 @@ public class SourceRepository {
   HydraBuilderFactory hydraBuilderFactory;
 
   private static final String ENDPOINT_NAME = "sources";
+  private static final QueryTemplate FIND_ONE_TEMPLATE = new QueryTemplate();
   private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
 
   private static final BiFunction<Model, QuerySolution, RDFNode> ROW_MAPPER = (model, row) -> {
@@ -76,8 +79,8 @@ public class SourceRepository {
   };
 
   @Cacheable(
-      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text}")
-  public String findAll(QueryParameters params, Lang lang) {
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.text, #params.totalItems}")
+  public byte[] findAll(QueryParameters params, Lang lang) {
     HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         Core.source, Api.sourceOrderByProp, params, false);
     ExprFactory ef = builder.ef;
@@ -92,15 +95,20 @@ public class SourceRepository {
     });
 
     builder.extendedData.addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS);
+    builder.useStatistics();
     return builder.query(ROW_MAPPER, lang);
   }
 
   @Cacheable(key = "{#lang, #id}")
-  public String findOne(Lang lang, UUID id) {
+  public byte[] findOne(Lang lang, UUID id) {
     HydraSingleBuilder builder = hydraBuilderFactory.singleBuilder(ENDPOINT_NAME, id, Core.source);
-    builder.coreData
-        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
-        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS);
+    return builder.query(FIND_ONE_TEMPLATE, coreData -> addData(coreData), ROW_MAPPER, lang);
+  }
+
+  public byte[] findMany(Lang lang, List<UUID> ids) {
+    HydraBatchBuilder builder =
+        hydraBuilderFactory.batchBuilder(ENDPOINT_NAME, Core.source, lang, ids);
+    addData(builder.coreData);
     return builder.query(ROW_MAPPER, lang);
   }
 
@@ -110,23 +118,29 @@ public class SourceRepository {
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.source, types);
     builder.build();
-    return new InsertResult(builder.root, findOne(lang, builder.id));
+    return new InsertResult(builder.root,
+        hydraBuilderFactory.writeResultBuilder(Core.source, builder).query(lang));
   }
 
-  public String update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
+  public byte[] update(Lang lang, UUID id, List<Resource> types, List<Literal> labels,
       List<Literal> comments, List<Literal> texts, List<Resource> sameAs) {
     HydraUpdateBuilder builder = hydraBuilderFactory.updateBuilder(lang, id, ENDPOINT_NAME, types,
         labels, comments, texts, sameAs);
     builder.validateSubresources(Core.source, types);
     builder.build();
-    return findOne(lang, builder.id);
+    return hydraBuilderFactory.writeResultBuilder(Core.source, builder).query(lang);
   }
 
   public void delete(UUID id) {
     HydraDeleteBuilder builder = hydraBuilderFactory.deleteBuilder(id, ENDPOINT_NAME, Core.source);
-    if (builder.ask(new AskBuilder().addWhere("?sourceLocation", Core.hasSource, builder.root))) {
+    if (!builder.unlessReferencedBy(Core.hasSource).build() && builder.isReferenced()) {
       throw new DeletionNotPermittedException("The source to be deleted is still in use");
     }
-    builder.build();
+  }
+
+  private void addData(WhereBuilder builder) {
+    builder
+        .addOptional(VAR_MAIN, Core.hasText, VAR_TEXT)
+        .addOptional(VAR_MAIN, Core.sameAs, VAR_SAME_AS);
   }
 }
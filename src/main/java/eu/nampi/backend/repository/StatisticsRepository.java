@@ -0,0 +1,79 @@
+package eu.nampi.backend.repository;
+
+import java.util.Map;
+import java.util.Optional;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import eu.nampi.backend.model.Facet;
+import eu.nampi.backend.service.StatisticsService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.util.UrlBuilder;
+import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+@Repository
+public class StatisticsRepository {
+
+  @Autowired
+  Serializer serializer;
+
+  @Autowired
+  StatisticsService statisticsService;
+
+  @Autowired
+  UrlBuilder urlBuilder;
+
+  public byte[] get(Lang lang, Optional<Facet> facet) {
+    Model model = createModel();
+    Resource root = ResourceFactory.createResource(urlBuilder.endpointUri("stats"));
+    model.add(root, RDF.type, Api.statistics);
+    statisticsService
+        .typeCounts()
+        .forEach((type, count) -> addStatistic(model, root, "type", type, count));
+    facet.ifPresent(f -> statisticsService
+        .facetCounts(f)
+        .forEach((value, count) -> addStatistic(model, root, f.getName(), value, count)));
+    return serializer.serialize(model, lang, root);
+  }
+
+  /**
+   * Serializes the provided facet counts as statistics of the resource with the provided IRI.
+   */
+  public byte[] facets(Lang lang, String iri, Map<Facet, Map<Resource, Integer>> counts) {
+    Model model = createModel();
+    Resource root = ResourceFactory.createResource(iri);
+    model.add(root, RDF.type, Api.facets);
+    counts.forEach((facet, values) -> values
+        .forEach((value, count) -> addStatistic(model, root, facet.getName(), value, count)));
+    return serializer.serialize(model, lang, root);
+  }
+
+  private Model createModel() {
+    return ModelFactory.createDefaultModel()
+        .setNsPrefix("api", Api.getURI())
+        .setNsPrefix("core", Core.getURI())
+        .setNsPrefix("hydra", Hydra.getURI())
+        .setNsPrefix("rdf", RDF.getURI())
+        .setNsPrefix("rdfs", RDFS.getURI());
+  }
+
+  private void addStatistic(Model model, Resource root, String facet, Resource value,
+      int count) {
+    Resource statistic = ResourceFactory.createResource();
+    model
+        .add(root, Api.statistic, statistic)
+        .add(statistic, Api.statisticFacet, facet)
+        .add(statistic, Api.statisticValue, value)
+        .addLiteral(statistic, Hydra.totalItems, ResourceFactory
+            .createTypedLiteral(String.valueOf(count), XSDDatatype.XSDinteger));
+  }
+}
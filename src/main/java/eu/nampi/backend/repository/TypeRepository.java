@@ -3,15 +3,19 @@ package eu.nampi.backend.repository;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_COMMENT;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_LABEL;
 import static eu.nampi.backend.queryBuilder.AbstractHydraBuilder.VAR_MAIN;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.regex.Pattern;
 import org.apache.jena.arq.querybuilder.AskBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
@@ -23,28 +27,31 @@ import org.springframework.stereotype.Repository;
 import eu.nampi.backend.model.QueryParameters;
 import eu.nampi.backend.queryBuilder.HydraBuilderFactory;
 import eu.nampi.backend.queryBuilder.HydraCollectionBuilder;
+import eu.nampi.backend.queryBuilder.QueryTemplate;
+import eu.nampi.backend.service.HierarchyIndexService;
 import eu.nampi.backend.service.JenaService;
-import eu.nampi.backend.util.Serializer;
 import eu.nampi.backend.vocabulary.Api;
-import eu.nampi.backend.vocabulary.Hydra;
 
 @Repository
 @CacheConfig(cacheNames = "types")
 public class TypeRepository {
 
-  @Autowired
-  Serializer serializer;
-
   @Autowired
   HydraBuilderFactory hydraBuilderFactory;
 
   @Autowired
   JenaService jenaService;
 
+  @Autowired
+  HierarchyIndexService hierarchyIndexService;
+
   @Value("${nampi.crm-prefix}")
   String crmPrefix;
 
   private static final String ENDPOINT_NAME = "types";
+  private static final QueryTemplate IS_TYPE_TEMPLATE = new QueryTemplate();
+  private static final Node VAR_NODE = NodeFactory.createVariable("node");
+  private static final Node VAR_NODE_TYPE = NodeFactory.createVariable("nodeType");
 
   Pattern totalItemsRegex = Pattern.compile("\"totalItems\":\"(\\d*)\"");
 
@@ -63,30 +70,28 @@ public class TypeRepository {
     return main;
   };
 
-  @Cacheable(key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type}")
-  public String findAll(QueryParameters params, Lang lang) {
-    // Try to get results as class
-    HydraCollectionBuilder classesBuilder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
+  @Cacheable(
+      key = "{#lang, #params.limit, #params.offset, #params.orderByClauses, #params.type, #params.totalItems}")
+  public byte[] findAll(QueryParameters params, Lang lang) {
+    Resource type = params.getType().orElseThrow();
+    HydraCollectionBuilder builder = hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME,
         RDFS.Resource, Api.typeOrderByProp, params, false, false);
-    var ef = classesBuilder.ef;
-    classesBuilder.coreData
-        .addWhere(VAR_MAIN, RDFS.subClassOf, params.getType().orElseThrow())
+    var ef = builder.ef;
+    // Subclasses in the CRM namespace are not listed
+    WhereBuilder classes = new WhereBuilder()
+        .addWhere(VAR_MAIN, RDFS.subClassOf, type)
         .addFilter(ef.not(ef.strstarts(ef.str(VAR_MAIN), crmPrefix)));
-    classesBuilder.build(ROW_MAPPER);
-    StmtIterator iterator =
-        classesBuilder.model.listStatements(classesBuilder.root, Hydra.totalItems, (RDFNode) null);
-    while (iterator.hasNext()) {
-      int totalItems = (Integer) iterator.next().asTriple().getObject().getLiteral().getValue();
-      if (totalItems > 0) {
-        return serializer.serialize(classesBuilder.model, lang, classesBuilder.root);
-      }
+    WhereBuilder properties = new WhereBuilder()
+        .addWhere(VAR_MAIN, RDFS.subPropertyOf, type);
+    // Classify the type with the hierarchy index, both branches are matched if it is not available
+    Optional<Property> relation = hierarchyIndexService.hierarchyRelation(type);
+    if (relation.isEmpty()) {
+      builder.coreData.addWhere(classes.addUnion(properties));
+    } else if (relation.get().equals(RDFS.subPropertyOf)) {
+      builder.coreData.addWhere(properties);
+    } else {
+      builder.coreData.addWhere(classes);
     }
-    // Try to get results as property
-    HydraCollectionBuilder builder =
-        hydraBuilderFactory.collectionBuilder(ENDPOINT_NAME, RDFS.Resource,
-            Api.typeOrderByProp, params, false, false);
-    builder.coreData.addWhere(VAR_MAIN, RDFS.subPropertyOf,
-        params.getType().orElseThrow());
     return builder.query(ROW_MAPPER, lang);
   }
 
@@ -95,7 +100,8 @@ public class TypeRepository {
     if (type.toString().equals(node.toString())) {
       return true;
     }
-    AskBuilder builder = new AskBuilder().addWhere(node, RDF.type, type);
-    return jenaService.ask(builder);
+    return jenaService.ask(IS_TYPE_TEMPLATE.bind(
+        () -> new AskBuilder().addWhere(VAR_NODE, RDF.type, VAR_NODE_TYPE),
+        Map.of(VAR_NODE, node, VAR_NODE_TYPE, type)));
   }
 }
@@ -71,7 +71,7 @@ public class UserRepository {
     }
   }
 
-  public Optional<String> getCurrentUser(Lang lang) {
+  public Optional<byte[]> getCurrentUser(Lang lang) {
     return getCurrentUser().map(u -> {
       Resource userResource =
           ResourceFactory.createResource(urlBuilder.endpointUri(ENDPOINT_NAME, "current"));
@@ -1,6 +1,8 @@
 package eu.nampi.backend.service;
 
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +14,15 @@ public class CacheService {
   @Autowired
   private CacheManager cacheManager;
 
+  public Optional<byte[]> get(String cacheName, Object key) {
+    return Optional
+        .ofNullable(cacheManager.getCache(cacheName))
+        .map(cache -> cache.get(key))
+        .map(Cache.ValueWrapper::get)
+        .filter(byte[].class::isInstance)
+        .map(byte[].class::cast);
+  }
+
   public void clear() {
     // All cache names need to be manually configured in application.properties to
     // be available in cacheManager.getCacheNames
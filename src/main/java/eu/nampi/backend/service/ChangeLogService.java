@@ -0,0 +1,163 @@
+package eu.nampi.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.exception.ChangesExpiredException;
+import eu.nampi.backend.util.Skolemizer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records every change of the data dataset as an RDF Patch in an append-only log in Redis. Each
+ * entry gets the next sequence number so consumers can request all changes after the last entry
+ * they have applied. Only the most recent entries are kept. Blank nodes are written as the same
+ * skolem IRIs the export uses, so removed dates and source locations can be matched.
+ */
+@Slf4j
+@Service
+public class ChangeLogService implements ApplicationListener<DatasetChangeEvent> {
+
+  private static final String KEY_ENTRIES = "changes:entries";
+  private static final String KEY_SEQUENCE = "changes:sequence";
+  // Assigns the sequence number and adds the entry in one step, so no reader can see a gap
+  private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+      "local sequence = redis.call('INCR', KEYS[1])\n"
+          + "redis.call('ZADD', KEYS[2], sequence, ARGV[1] .. sequence .. ARGV[2])\n"
+          + "redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[3]) + 1))\n"
+          + "return sequence",
+      Long.class);
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @Autowired
+  private Skolemizer skolemizer;
+
+  @Value("${nampi.change-log-size}")
+  private int size;
+
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * The sequence number of the latest recorded change, 0 if nothing has been recorded yet.
+   */
+  public long latest() {
+    return Optional
+        .ofNullable(redisTemplate.opsForValue().get(KEY_SEQUENCE))
+        .map(Long::parseLong)
+        .orElse(0L);
+  }
+
+  /**
+   * At most limit changes with a sequence number greater than the provided one as concatenated RDF
+   * Patches, empty if there are none yet.
+   */
+  public Optional<String> since(long sequence, int limit) {
+    long latest = latest();
+    if (sequence < 0 || sequence > latest) {
+      throw new IllegalArgumentException(
+          String.format("Sequence number %d is not between 0 and %d", sequence, latest));
+    }
+    if (sequence == latest) {
+      return Optional.empty();
+    }
+    Set<TypedTuple<String>> oldest = redisTemplate.opsForZSet().rangeWithScores(KEY_ENTRIES, 0, 0);
+    long first = oldest == null || oldest.isEmpty() ? latest + 1
+        : oldest.iterator().next().getScore().longValue();
+    if (first > sequence + 1) {
+      throw new ChangesExpiredException(String.format(
+          "The changes after %d are no longer available, the oldest change is %d", sequence,
+          first));
+    }
+    Set<String> entries =
+        redisTemplate.opsForZSet().rangeByScore(KEY_ENTRIES, sequence + 1, sequence + limit);
+    return Optional
+        .ofNullable(entries)
+        .filter(e -> !e.isEmpty())
+        .map(e -> String.join("", e));
+  }
+
+  /**
+   * Registers a listener that is run after each new entry until the returned handle is run.
+   */
+  public Runnable subscribe(Runnable listener) {
+    listeners.add(listener);
+    return () -> listeners.remove(listener);
+  }
+
+  @Override
+  public void onApplicationEvent(DatasetChangeEvent event) {
+    // A reload only rebuilds the inference cache from the unchanged data dataset
+    if (event.isReload()) {
+      return;
+    }
+    Model skolemizedRemoved = skolemizer.skolemize(event.getRemoved());
+    Model skolemizedAdded = skolemizer.skolemize(event.getAdded());
+    // Blank nodes that were replaced by identical ones now have the same IRI
+    Model removed = skolemizedRemoved.difference(skolemizedAdded);
+    Model added = skolemizedAdded.difference(skolemizedRemoved);
+    if (removed.isEmpty() && added.isEmpty()) {
+      return;
+    }
+    try {
+      Long sequence = redisTemplate.execute(RECORD_SCRIPT, List.of(KEY_SEQUENCE, KEY_ENTRIES),
+          "H sequence \"", patch(removed, added), String.valueOf(size));
+      log.debug("Recorded change {}", sequence);
+    } catch (RuntimeException e) {
+      log.warn("Could not record change: {}", e.getMessage());
+      return;
+    }
+    listeners.forEach(listener -> {
+      try {
+        listener.run();
+      } catch (RuntimeException e) {
+        log.warn("Could not notify change listener: {}", e.getMessage());
+      }
+    });
+  }
+
+  // The patch after the lexical form of the sequence number, which is only known in Redis
+  private String patch(Model removed, Model added) {
+    StringBuilder patch = new StringBuilder()
+        .append("\"^^")
+        .append(NodeFmtLib.str(NodeFactory.createURI(XSDDatatype.XSDinteger.getURI())))
+        .append(" .\n")
+        .append("H timestamp ")
+        .append(NodeFmtLib.str(NodeFactory.createLiteral(
+            LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+            XSDDatatype.XSDdateTime)))
+        .append(" .\n")
+        .append("TX .\n");
+    patch.append(rows("D", removed));
+    patch.append(rows("A", added));
+    return patch.append("TC .\n").toString();
+  }
+
+  private String rows(String operation, Model model) {
+    return model
+        .getGraph()
+        .find()
+        .mapWith(triple -> String.format("%s %s .\n", operation, NodeFmtLib.str(triple)))
+        .toList()
+        .stream()
+        .sorted()
+        .collect(Collectors.joining());
+  }
+}
@@ -0,0 +1,366 @@
+package eu.nampi.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.datatypes.xsd.XSDDateTime;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.path.Path;
+import org.apache.jena.sparql.path.PathFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.model.DateRange;
+import eu.nampi.backend.model.DatesMatchMode;
+import eu.nampi.backend.vocabulary.Core;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the date interval of every dated event in memory. Exact dates are treated as intervals of
+ * length zero, a missing lower or upper bound is open and xsd:date values start at midnight. The
+ * intervals are sorted by their start and a max-end segment tree over the sorted intervals prunes
+ * overlap queries.
+ */
+@Slf4j
+@Service
+public class EventDateIndexService implements ApplicationListener<DatasetChangeEvent> {
+
+  private static final int BATCH_SIZE = 500;
+  // Restricting the members to more events is slower than filtering the dates in the database
+  private static final int MAX_CANDIDATES = 5000;
+  private static final ExprFactory EF = new ExprFactory();
+  private static final Node VAR_DATE_TIME = NodeFactory.createVariable("indexDateTime");
+  private static final Node VAR_EARLIEST = NodeFactory.createVariable("earliest");
+  private static final Node VAR_EVENT = NodeFactory.createVariable("event");
+  private static final Node VAR_EXACT = NodeFactory.createVariable("exact");
+  private static final Node VAR_LATEST = NodeFactory.createVariable("latest");
+
+  @Autowired
+  private JenaService jenaService;
+
+  // The [start, end] interval in epoch seconds per event
+  private final Map<String, long[]> intervals = new HashMap<>();
+
+  private boolean ready = false;
+
+  private boolean dirty = true;
+
+  private String[] events = new String[0];
+
+  private long[] starts = new long[0];
+
+  private long[] ends = new long[0];
+
+  private long[] maxEnds = new long[0];
+
+  /**
+   * Finds all events whose interval overlaps with or is contained in the provided date range.
+   * Returns an empty optional if the index is not available or more than {@value MAX_CANDIDATES}
+   * events match, the same events are then matched by {@link #filter}.
+   */
+  public synchronized Optional<List<Resource>> find(DateRange range, DatesMatchMode mode) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    if (dirty) {
+      rebuildIndex();
+    }
+    long start = range.getStart().map(this::toSeconds).orElse(Long.MIN_VALUE);
+    long end = range.isRange()
+        ? range.getEnd().map(this::toSeconds).orElse(Long.MAX_VALUE)
+        : start;
+    List<Resource> result = new ArrayList<>();
+    if (mode == DatesMatchMode.CONTAIN) {
+      for (int i = lowerBound(start); i < upperBound(end) && result.size() <= MAX_CANDIDATES; i++) {
+        if (ends[i] <= end) {
+          result.add(ResourceFactory.createResource(events[i]));
+        }
+      }
+    } else if (events.length > 0) {
+      collectOverlapping(1, 0, events.length - 1, upperBound(end), start, result);
+    }
+    return result.size() > MAX_CANDIDATES ? Optional.empty() : Optional.of(result);
+  }
+
+  /**
+   * Creates a filter on the event variable that matches the same events as {@link #find} for
+   * queries the index can't answer.
+   */
+  public Expr filter(Node event, DateRange range, DatesMatchMode mode) {
+    Optional<LocalDateTime> start = range.getStart();
+    Optional<LocalDateTime> end = range.isRange() ? range.getEnd() : start;
+    List<Expr> filters = new ArrayList<>();
+    filters.add(EF.or(EF.or(exists(event, Core.takesPlaceOn),
+        exists(event, Core.takesPlaceNotEarlierThan)),
+        exists(event, Core.takesPlaceNotLaterThan)));
+    if (mode == DatesMatchMode.CONTAIN) {
+      start.ifPresent(date -> filters
+          .add(contained(event, Core.takesPlaceNotEarlierThan, EF::lt, literal(date))));
+      end.ifPresent(date -> filters
+          .add(contained(event, Core.takesPlaceNotLaterThan, EF::gt, literal(date))));
+    } else {
+      start.ifPresent(date -> filters
+          .add(overlapping(event, Core.takesPlaceNotLaterThan, EF::ge, literal(date))));
+      end.ifPresent(date -> filters
+          .add(overlapping(event, Core.takesPlaceNotEarlierThan, EF::le, literal(date))));
+    }
+    return filters.stream().reduce(EF::and).get();
+  }
+
+  @Override
+  public void onApplicationEvent(DatasetChangeEvent event) {
+    try {
+      if (event.isReload()) {
+        reload();
+      } else {
+        update(changedSubjects(event));
+      }
+    } catch (RuntimeException e) {
+      // Without a reliable index the dates are filtered in the database again
+      log.warn("Event date index is disabled until the next reload: {}", e.getMessage());
+      synchronized (this) {
+        ready = false;
+      }
+    }
+  }
+
+  private List<Resource> changedSubjects(DatasetChangeEvent event) {
+    return Stream
+        .of(event.getRemoved(), event.getAdded())
+        .flatMap(model -> model.listStatements().toList().stream())
+        .map(Statement::getSubject)
+        .filter(Resource::isURIResource)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  private synchronized void reload() {
+    intervals.clear();
+    intervals.putAll(load(Optional.empty()));
+    dirty = true;
+    ready = true;
+    log.info("Loaded date intervals for {} events", intervals.size());
+  }
+
+  private synchronized void update(List<Resource> subjects) {
+    if (!ready) {
+      return;
+    }
+    for (int i = 0; i < subjects.size(); i += BATCH_SIZE) {
+      List<Resource> batch = subjects.subList(i, Math.min(i + BATCH_SIZE, subjects.size()));
+      Map<String, long[]> loaded = load(Optional.of(batch));
+      batch.forEach(subject -> intervals.remove(subject.getURI()));
+      intervals.putAll(loaded);
+    }
+    dirty = true;
+  }
+
+  private void rebuildIndex() {
+    List<Map.Entry<String, long[]>> sorted = intervals
+        .entrySet()
+        .stream()
+        .sorted(Comparator.comparingLong(e -> e.getValue()[0]))
+        .collect(Collectors.toList());
+    int size = sorted.size();
+    events = new String[size];
+    starts = new long[size];
+    ends = new long[size];
+    for (int i = 0; i < size; i++) {
+      events[i] = sorted.get(i).getKey();
+      starts[i] = sorted.get(i).getValue()[0];
+      ends[i] = sorted.get(i).getValue()[1];
+    }
+    maxEnds = new long[Math.max(4 * size, 1)];
+    Arrays.fill(maxEnds, Long.MIN_VALUE);
+    if (size > 0) {
+      buildTree(1, 0, size - 1);
+    }
+    dirty = false;
+  }
+
+  private void buildTree(int node, int low, int high) {
+    if (low == high) {
+      maxEnds[node] = ends[low];
+      return;
+    }
+    int mid = (low + high) / 2;
+    buildTree(2 * node, low, mid);
+    buildTree(2 * node + 1, mid + 1, high);
+    maxEnds[node] = Math.max(maxEnds[2 * node], maxEnds[2 * node + 1]);
+  }
+
+  // Collects all intervals with an index below the limit that end at or after the start
+  private void collectOverlapping(int node, int low, int high, int limit, long start,
+      List<Resource> result) {
+    if (low >= limit || maxEnds[node] < start || result.size() > MAX_CANDIDATES) {
+      return;
+    }
+    if (low == high) {
+      result.add(ResourceFactory.createResource(events[low]));
+      return;
+    }
+    int mid = (low + high) / 2;
+    collectOverlapping(2 * node, low, mid, limit, start, result);
+    collectOverlapping(2 * node + 1, mid + 1, high, limit, start, result);
+  }
+
+  // The index of the first interval that starts at or after the value
+  private int lowerBound(long value) {
+    int low = 0;
+    int high = starts.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // The index of the first interval that starts after the value
+  private int upperBound(long value) {
+    int low = 0;
+    int high = starts.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private Map<String, long[]> load(Optional<Collection<Resource>> subjects) {
+    Map<String, List<Long>> exact = new HashMap<>();
+    Map<String, List<Long>> earliest = new HashMap<>();
+    Map<String, List<Long>> latest = new HashMap<>();
+    SelectBuilder builder = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_EVENT)
+        .addVar(VAR_EXACT)
+        .addVar(VAR_EARLIEST)
+        .addVar(VAR_LATEST);
+    subjects.ifPresent(s -> builder.addWhereValueVar(VAR_EVENT, s.toArray()));
+    builder
+        .addWhere(VAR_EVENT, RDF.type, Core.event)
+        .addOptional(VAR_EVENT, datePath(Core.takesPlaceOn), VAR_EXACT)
+        .addOptional(VAR_EVENT, datePath(Core.takesPlaceNotEarlierThan), VAR_EARLIEST)
+        .addOptional(VAR_EVENT, datePath(Core.takesPlaceNotLaterThan), VAR_LATEST);
+    jenaService.select(builder, row -> {
+      String event = row.getResource(VAR_EVENT.getName()).getURI();
+      collect(row, VAR_EXACT, event, exact);
+      collect(row, VAR_EARLIEST, event, earliest);
+      collect(row, VAR_LATEST, event, latest);
+    });
+    Map<String, long[]> loaded = new HashMap<>();
+    exact.forEach((event, values) -> loaded.put(event,
+        new long[] {values.stream().min(Long::compare).get(),
+            values.stream().max(Long::compare).get()}));
+    Stream
+        .concat(earliest.keySet().stream(), latest.keySet().stream())
+        .filter(event -> !loaded.containsKey(event))
+        .forEach(event -> loaded.put(event, new long[] {
+            earliest.getOrDefault(event, List.of(Long.MIN_VALUE)).stream().min(Long::compare)
+                .get(),
+            latest.getOrDefault(event, List.of(Long.MAX_VALUE)).stream().max(Long::compare)
+                .get()}));
+    return loaded;
+  }
+
+  private void collect(QuerySolution row, Node var, String event, Map<String, List<Long>> target) {
+    Optional
+        .ofNullable(row.getLiteral(var.getName()))
+        .flatMap(this::toSeconds)
+        .ifPresent(seconds -> target.computeIfAbsent(event, k -> new ArrayList<>()).add(seconds));
+  }
+
+  // One matching exact date or, without exact dates, a missing or matching bound
+  private Expr overlapping(Node event, Resource bound, BinaryOperator<Expr> matches,
+      Expr date) {
+    return EF.or(exists(event, Core.takesPlaceOn, matches, date),
+        EF.and(EF.not(exists(event, Core.takesPlaceOn)), EF.or(EF.not(exists(event, bound)),
+            exists(event, bound, matches, date))));
+  }
+
+  // No exact date outside or, without exact dates, a present bound that isn't outside
+  private Expr contained(Node event, Resource bound, BinaryOperator<Expr> outside, Expr date) {
+    return EF.or(
+        EF.and(exists(event, Core.takesPlaceOn),
+            EF.not(exists(event, Core.takesPlaceOn, outside, date))),
+        EF.and(EF.and(EF.not(exists(event, Core.takesPlaceOn)), exists(event, bound)),
+            EF.not(exists(event, bound, outside, date))));
+  }
+
+  private Expr exists(Node event, Resource predicate) {
+    return EF.exists(new WhereBuilder().addWhere(event, datePath(predicate), VAR_DATE_TIME));
+  }
+
+  // Dates are compared as date times starting at midnight like in the index
+  private Expr exists(Node event, Resource predicate, BinaryOperator<Expr> compare, Expr date) {
+    return EF.exists(new WhereBuilder()
+        .addWhere(event, datePath(predicate), VAR_DATE_TIME)
+        .addFilter(compare.apply(EF.function(XSDDatatype.XSDdateTime.getURI(),
+            new ExprList(new ExprVar(VAR_DATE_TIME))), date)));
+  }
+
+  private Expr literal(LocalDateTime date) {
+    return EF.asExpr(ResourceFactory.createTypedLiteral(
+        date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), XSDDatatype.XSDdateTime));
+  }
+
+  private Path datePath(Resource predicate) {
+    return PathFactory.pathSeq(PathFactory.pathLink(predicate.asNode()),
+        PathFactory.pathLink(Core.hasDateTime.asNode()));
+  }
+
+  private Optional<Long> toSeconds(Literal literal) {
+    try {
+      XSDDateTime value = (XSDDateTime) literal.getValue();
+      if (XSDDatatype.XSDdate.equals(literal.getDatatype())) {
+        return Optional.of(toSeconds(LocalDate
+            .of(value.getYears(), value.getMonths(), value.getDays())
+            .atStartOfDay()));
+      }
+      return Optional.of(toSeconds(LocalDateTime.of(value.getYears(), value.getMonths(),
+          value.getDays(), value.getHours(), value.getMinutes(), (int) value.getFullSeconds())));
+    } catch (RuntimeException e) {
+      log.debug("Ignoring date '{}' in the event date index: {}", literal, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private long toSeconds(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+}
@@ -1,25 +1,48 @@
 package eu.nampi.backend.service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdfconnection.RDFConnectionFuseki;
 import org.apache.jena.rdfconnection.RDFConnectionRemoteBuilder;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.BasicPattern;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.jena.sparql.lang.sparql_11.ParseException;
+import org.apache.jena.sparql.modify.request.UpdateDataDelete;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
+import org.apache.jena.sparql.modify.request.UpdateDeleteWhere;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.Template;
+import org.apache.jena.update.Update;
 import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.apache.jena.vocabulary.XSD;
@@ -27,6 +50,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import eu.nampi.backend.event.DatasetChangeEvent;
 import eu.nampi.backend.vocabulary.Api;
 import eu.nampi.backend.vocabulary.Core;
 import eu.nampi.backend.vocabulary.Hydra;
@@ -40,6 +65,9 @@ public class FusekiService implements JenaService {
   @Autowired
   private CacheService cacheService;
 
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   private RDFConnectionRemoteBuilder dataBuilder;
 
   private RDFConnectionRemoteBuilder infCacheBuilder;
@@ -68,6 +96,24 @@ public class FusekiService implements JenaService {
     }
   }
 
+  @Override
+  public boolean ask(Query query) {
+    try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
+      log.debug("{}", query);
+      return conn.queryAsk(query);
+    }
+  }
+
+  @Override
+  public void constructData(Query query, StreamRDF output) {
+    try (RDFConnectionFuseki conn = (RDFConnectionFuseki) dataBuilder.build();
+        QueryExecution execution = conn.query(query)) {
+      log.debug("{}", query);
+      // The triples are passed on while they are parsed instead of being collected in a model
+      execution.execConstructTriples().forEachRemaining(output::triple);
+    }
+  }
+
   @Override
   @Cacheable(
       key = "{#whereBuilder.buildString().replaceAll(\"[\\n\\t ]\", \"\"), #distinctVariable.getName()}")
@@ -102,13 +148,49 @@ public class FusekiService implements JenaService {
       dataModel = conn.queryConstruct("CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o}");
     }
     infCacheModel.add(dataModel);
+    addDisplayableTypes(infCacheModel);
     try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
       conn.update("DELETE {?s ?p ?o } WHERE {?s ?p ?o }");
       conn.put(infCacheModel);
     }
+    eventPublisher.publishEvent(new DatasetChangeEvent(this));
     cacheService.clear();
   }
 
+  /**
+   * Marks all classes and properties outside of the RDF, RDFS and OWL vocabularies as displayable
+   * so queries can match them directly instead of filtering types by their namespace.
+   */
+  private void addDisplayableTypes(Model model) {
+    Set<Resource> candidates = new HashSet<>();
+    model.listObjectsOfProperty(RDF.type)
+        .filterKeep(RDFNode::isURIResource)
+        .forEachRemaining(type -> candidates.add(type.asResource()));
+    model.listStatements()
+        .forEachRemaining(stmt -> candidates.add(stmt.getPredicate()));
+    Stream
+        .of(OWL.Class, RDFS.Class, RDF.Property, OWL.ObjectProperty, OWL.DatatypeProperty,
+            OWL.AnnotationProperty)
+        .forEach(type -> model.listSubjectsWithProperty(RDF.type, type)
+            .forEachRemaining(candidates::add));
+    Stream
+        .of(RDFS.subClassOf, RDFS.subPropertyOf)
+        .forEach(property -> model.listStatements(null, property, (RDFNode) null)
+            .forEachRemaining(stmt -> {
+              candidates.add(stmt.getSubject());
+              if (stmt.getObject().isResource()) {
+                candidates.add(stmt.getObject().asResource());
+              }
+            }));
+    candidates
+        .stream()
+        .filter(Resource::isURIResource)
+        .filter(res -> Stream.of(RDF.getURI(), RDFS.getURI(), OWL.getURI())
+            .noneMatch(ns -> res.getURI().startsWith(ns)))
+        .collect(Collectors.toList())
+        .forEach(res -> model.addLiteral(res, Api.displayable, true));
+  }
+
   @Override
   public void select(SelectBuilder selectBuilder, Consumer<QuerySolution> rowAction) {
     try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
@@ -128,17 +210,110 @@ public class FusekiService implements JenaService {
   }
 
   @Override
-  public void update(UpdateBuilder updateBuilder) {
-    UpdateRequest request = updateBuilder.buildRequest();
+  public void select(Query query, Consumer<QuerySolution> rowAction) {
+    try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
+      log.debug("{}", query);
+      conn.querySelect(query, rowAction);
+    }
+  }
+
+  @Override
+  public void selectData(Query query, Consumer<QuerySolution> rowAction) {
+    try (RDFConnectionFuseki conn = (RDFConnectionFuseki) dataBuilder.build()) {
+      log.debug("{}", query);
+      conn.querySelect(query, rowAction);
+    }
+  }
+
+  @Override
+  public boolean update(UpdateBuilder updateBuilder) {
+    return update(List.of(updateBuilder.buildRequest()));
+  }
+
+  @Override
+  public boolean update(List<UpdateRequest> requests) {
+    boolean changed = false;
+    for (UpdateRequest request : requests) {
+      log.debug(request.toString());
+      Model removed = ModelFactory.createDefaultModel();
+      Model added = ModelFactory.createDefaultModel();
+      // Process update in both data and infCache datasets so the data is kept in sync
+      try (RDFConnectionFuseki conn = (RDFConnectionFuseki) dataBuilder.build()) {
+        // Resolve the triples the update is going to change before it is executed
+        for (Update update : request.getOperations()) {
+          collectChanges(conn, update, removed, added);
+        }
+        conn.update(request);
+      }
+      try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
+        conn.update(request);
+      }
+      DatasetChangeEvent event =
+          new DatasetChangeEvent(this, removed.difference(added), added.difference(removed));
+      changed |= !event.getRemoved().isEmpty() || !event.getAdded().isEmpty();
+      eventPublisher.publishEvent(event);
+    }
+    // Clear cache once after all requests
+    cacheService.clear();
+    return changed;
+  }
+
+  @Override
+  public void update(UpdateRequest request, Model removed, Model added) {
     log.debug(request.toString());
-    // Process update in both data and infCache datasets so the data is kept in sync
     try (RDFConnectionFuseki conn = (RDFConnectionFuseki) dataBuilder.build()) {
       conn.update(request);
     }
     try (RDFConnectionFuseki conn = (RDFConnectionFuseki) infCacheBuilder.build()) {
       conn.update(request);
     }
-    // Clear cache after each update
+    eventPublisher.publishEvent(new DatasetChangeEvent(this, removed, added));
     cacheService.clear();
   }
+
+  private void collectChanges(RDFConnectionFuseki conn, Update update, Model removed,
+      Model added) {
+    if (update instanceof UpdateModify) {
+      UpdateModify modify = (UpdateModify) update;
+      removed.add(construct(conn, modify.getDeleteQuads(), modify.getWherePattern()));
+      added.add(construct(conn, modify.getInsertQuads(), modify.getWherePattern()));
+    } else if (update instanceof UpdateDeleteWhere) {
+      List<Quad> quads = ((UpdateDeleteWhere) update).getQuads();
+      removed.add(construct(conn, quads, new ElementPathBlock(toPattern(quads))));
+    } else if (update instanceof UpdateDataInsert) {
+      added.add(construct(conn, ((UpdateDataInsert) update).getQuads(), new ElementGroup()));
+    } else if (update instanceof UpdateDataDelete) {
+      removed.add(construct(conn, ((UpdateDataDelete) update).getQuads(), new ElementGroup()));
+    }
+  }
+
+  private Model construct(RDFConnectionFuseki conn, List<Quad> quads, Element where) {
+    BasicPattern pattern = toPattern(quads);
+    if (pattern.isEmpty()) {
+      return ModelFactory.createDefaultModel();
+    }
+    boolean concrete = pattern.getList().stream().allMatch(Triple::isConcrete);
+    boolean noWhere = where instanceof ElementGroup && ((ElementGroup) where).isEmpty();
+    if (concrete && noWhere) {
+      // Nothing to resolve, the template already is the change
+      Graph graph = GraphFactory.createDefaultGraph();
+      pattern.forEach(graph::add);
+      return ModelFactory.createModelForGraph(graph);
+    }
+    Query query = new Query();
+    query.setQueryConstructType();
+    query.setConstructTemplate(new Template(pattern));
+    query.setQueryPattern(where);
+    return conn.queryConstruct(query);
+  }
+
+  private BasicPattern toPattern(List<Quad> quads) {
+    BasicPattern pattern = new BasicPattern();
+    quads
+        .stream()
+        .filter(Quad::isDefaultGraph)
+        .map(Quad::asTriple)
+        .forEach(pattern::add);
+    return pattern;
+  }
 }
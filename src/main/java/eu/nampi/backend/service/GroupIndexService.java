@@ -0,0 +1,175 @@
+package eu.nampi.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.vocabulary.Core;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the part-of relations between all groups in memory as adjacency lists in both directions.
+ * The index is loaded on first use and rebuilt whenever a group or one of its relations changes.
+ */
+@Slf4j
+@Service
+public class GroupIndexService implements ApplicationListener<DatasetChangeEvent> {
+
+  private static final Set<Property> RELEVANT_PROPERTIES =
+      Set.of(Core.isPartOf, Core.hasPart, RDFS.label);
+  private static final Node VAR_CHILD = NodeFactory.createVariable("child");
+  private static final Node VAR_GROUP = NodeFactory.createVariable("group");
+  private static final Node VAR_LABEL = NodeFactory.createVariable("label");
+  private static final Node VAR_PARENT = NodeFactory.createVariable("parent");
+
+  @Autowired
+  private JenaService jenaService;
+
+  private boolean ready = false;
+
+  private Map<String, Set<String>> parents = new HashMap<>();
+
+  private Map<String, Set<String>> children = new HashMap<>();
+
+  private Map<String, List<Literal>> labels = new HashMap<>();
+
+  public synchronized boolean contains(Resource group) {
+    ensureLoaded();
+    return labels.containsKey(group.getURI());
+  }
+
+  /**
+   * The groups the group is part of and the groups these are part of, up to the provided depth.
+   */
+  public synchronized Map<Resource, Set<Resource>> ancestors(Resource group, int depth) {
+    ensureLoaded();
+    return walk(group, depth, parents);
+  }
+
+  /**
+   * The parts of the group and their parts, up to the provided depth.
+   */
+  public synchronized Map<Resource, Set<Resource>> descendants(Resource group, int depth) {
+    ensureLoaded();
+    return walk(group, depth, children);
+  }
+
+  public synchronized List<Literal> labels(Resource group) {
+    ensureLoaded();
+    return labels.getOrDefault(group.getURI(), List.of());
+  }
+
+  @Override
+  public void onApplicationEvent(DatasetChangeEvent event) {
+    boolean changed = event.isReload() || Stream
+        .of(event.getRemoved(), event.getAdded())
+        .flatMap(model -> model.listStatements().toList().stream())
+        .anyMatch(this::isRelevant);
+    if (changed) {
+      synchronized (this) {
+        // The index is loaded again the next time it is used
+        ready = false;
+      }
+    }
+  }
+
+  private synchronized boolean isRelevant(Statement stmt) {
+    return (stmt.getPredicate().equals(RDF.type) && stmt.getObject().equals(Core.group))
+        || (RELEVANT_PROPERTIES.contains(stmt.getPredicate())
+            && stmt.getSubject().isURIResource()
+            && labels.containsKey(stmt.getSubject().getURI()));
+  }
+
+  private Map<Resource, Set<Resource>> walk(Resource group, int depth,
+      Map<String, Set<String>> edges) {
+    Map<Resource, Set<Resource>> tree = new LinkedHashMap<>();
+    Map<String, Integer> distances = new HashMap<>();
+    Deque<String> queue = new ArrayDeque<>();
+    distances.put(group.getURI(), 0);
+    queue.add(group.getURI());
+    while (!queue.isEmpty()) {
+      String next = queue.poll();
+      int distance = distances.get(next);
+      Set<String> related = distance < depth ? edges.getOrDefault(next, Set.of()) : Set.of();
+      tree.put(resource(next), related.stream().map(this::resource).collect(Collectors.toSet()));
+      for (String other : related) {
+        if (!distances.containsKey(other)) {
+          distances.put(other, distance + 1);
+          queue.add(other);
+        }
+      }
+    }
+    return tree;
+  }
+
+  private void ensureLoaded() {
+    if (ready) {
+      return;
+    }
+    Map<String, Set<String>> loadedParents = new HashMap<>();
+    Map<String, Set<String>> loadedChildren = new HashMap<>();
+    Map<String, List<Literal>> loadedLabels = new HashMap<>();
+    SelectBuilder groups = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_GROUP)
+        .addVar(VAR_LABEL)
+        .addWhere(VAR_GROUP, RDF.type, Core.group)
+        .addOptional(VAR_GROUP, RDFS.label, VAR_LABEL);
+    jenaService.select(groups, row -> {
+      List<Literal> groupLabels = loadedLabels.computeIfAbsent(
+          row.getResource(VAR_GROUP.getName()).getURI(), k -> new ArrayList<>());
+      if (row.contains(VAR_LABEL.getName())) {
+        groupLabels.add(row.getLiteral(VAR_LABEL.getName()));
+      }
+    });
+    // The relation might only be stated in one direction
+    SelectBuilder relations = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_CHILD)
+        .addVar(VAR_PARENT)
+        .addWhere(new WhereBuilder()
+            .addWhere(VAR_CHILD, Core.isPartOf, VAR_PARENT)
+            .addUnion(new WhereBuilder().addWhere(VAR_PARENT, Core.hasPart, VAR_CHILD)))
+        .addWhere(VAR_CHILD, RDF.type, Core.group)
+        .addWhere(VAR_PARENT, RDF.type, Core.group);
+    jenaService.select(relations, row -> {
+      String child = row.getResource(VAR_CHILD.getName()).getURI();
+      String parent = row.getResource(VAR_PARENT.getName()).getURI();
+      if (!child.equals(parent)) {
+        loadedParents.computeIfAbsent(child, k -> new HashSet<>()).add(parent);
+        loadedChildren.computeIfAbsent(parent, k -> new HashSet<>()).add(child);
+      }
+    });
+    parents = loadedParents;
+    children = loadedChildren;
+    labels = loadedLabels;
+    ready = true;
+    log.info("Loaded the part-of relations of {} groups", labels.size());
+  }
+
+  private Resource resource(String iri) {
+    return ResourceFactory.createResource(iri);
+  }
+}
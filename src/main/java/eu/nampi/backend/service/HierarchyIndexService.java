@@ -0,0 +1,342 @@
+package eu.nampi.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.vocabulary.Api;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the class and property hierarchies in memory. The transitive closure of all subclass and
+ * subproperty relations is computed with the depth of every ancestor, as well as the transitive
+ * reduction that only contains the direct parents of each node.
+ */
+@Slf4j
+@Service
+public class HierarchyIndexService implements ApplicationListener<DatasetChangeEvent> {
+
+  private static final Set<Property> HIERARCHY_PROPERTIES =
+      Set.of(RDFS.subClassOf, RDFS.subPropertyOf);
+  private static final Set<Property> DESCRIPTION_PROPERTIES =
+      Set.of(RDF.type, RDFS.label, RDFS.comment, Api.displayable);
+  private static final Node VAR_CHILD = NodeFactory.createVariable("child");
+  private static final Node VAR_COMMENT = NodeFactory.createVariable("comment");
+  private static final Node VAR_DISPLAYABLE = NodeFactory.createVariable("displayable");
+  private static final Node VAR_LABEL = NodeFactory.createVariable("label");
+  private static final Node VAR_NODE = NodeFactory.createVariable("node");
+  private static final Node VAR_PARENT = NodeFactory.createVariable("parent");
+  private static final Node VAR_PREDICATE = NodeFactory.createVariable("predicate");
+
+  @Autowired
+  private JenaService jenaService;
+
+  private boolean ready = false;
+
+  // The ancestors of every node with the length of the shortest path to them
+  private Map<String, Map<String, Integer>> ancestors = new HashMap<>();
+
+  private Map<String, Set<String>> descendants = new HashMap<>();
+
+  private Map<String, Set<String>> children = new HashMap<>();
+
+  private Map<String, List<Literal>> labels = new HashMap<>();
+
+  private Map<String, List<Literal>> comments = new HashMap<>();
+
+  private Set<String> displayable = new HashSet<>();
+
+  private Set<String> properties = new HashSet<>();
+
+  public synchronized boolean contains(Resource node) {
+    return ready && node.isURIResource() && labels.containsKey(node.getURI());
+  }
+
+  /**
+   * The direct parents of the node and of all its ancestors. Only displayable ancestors outside the
+   * excluded namespace are kept, a node whose parents are all removed is connected to the closest
+   * kept ancestors instead. The types are treated as the parents of the node if it is no class or
+   * property itself. Returns an empty optional if the index is not available.
+   */
+  public synchronized Optional<Map<Resource, Set<Resource>>> ancestorTree(Resource node,
+      Collection<Resource> types, String excludedNamespace) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    Set<String> start = labels.containsKey(node.getURI())
+        ? Set.of(node.getURI())
+        : types.stream().map(Resource::getURI).collect(Collectors.toSet());
+    Set<String> kept = start
+        .stream()
+        .flatMap(s -> Stream.concat(Stream.of(s), ancestorsOf(s).keySet().stream()))
+        .filter(a -> !a.equals(node.getURI()))
+        .filter(a -> displayable.contains(a) && !a.startsWith(excludedNamespace))
+        .collect(Collectors.toSet());
+    Map<Resource, Set<Resource>> tree = new LinkedHashMap<>();
+    Set<String> rootAncestors = new HashSet<>();
+    start.forEach(s -> {
+      if (!s.equals(node.getURI())) {
+        rootAncestors.add(s);
+      }
+      rootAncestors.addAll(ancestorsOf(s).keySet());
+    });
+    tree.put(node, closest(rootAncestors, kept));
+    kept.forEach(a -> tree.put(resource(a), closest(ancestorsOf(a).keySet(), kept)));
+    return Optional.of(tree);
+  }
+
+  /**
+   * The direct children of the node and of all its descendants. Returns an empty optional if the
+   * index is not available.
+   */
+  public synchronized Optional<Map<Resource, Set<Resource>>> descendantTree(Resource node) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    Map<Resource, Set<Resource>> tree = new LinkedHashMap<>();
+    Stream
+        .concat(Stream.of(node.getURI()),
+            descendants.getOrDefault(node.getURI(), Set.of()).stream())
+        .forEach(d -> tree.put(resource(d), children
+            .getOrDefault(d, Set.of())
+            .stream()
+            .map(this::resource)
+            .collect(Collectors.toSet())));
+    return Optional.of(tree);
+  }
+
+  /**
+   * The number of direct subclass or subproperty steps between the node and its ancestor.
+   */
+  public synchronized Optional<Integer> depth(Resource node, Resource ancestor) {
+    return ready
+        ? Optional.ofNullable(ancestorsOf(node.getURI()).get(ancestor.getURI()))
+        : Optional.empty();
+  }
+
+  /**
+   * The relation that connects the node to its parents and children: rdfs:subPropertyOf for
+   * properties and rdfs:subClassOf for everything else. Returns an empty optional if the index is
+   * not available.
+   */
+  public synchronized Optional<Property> hierarchyRelation(Resource node) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    return Optional.of(node.isURIResource() && properties.contains(node.getURI())
+        ? RDFS.subPropertyOf
+        : RDFS.subClassOf);
+  }
+
+  public synchronized List<Literal> labels(Resource node) {
+    return labels.getOrDefault(node.getURI(), List.of());
+  }
+
+  public synchronized List<Literal> comments(Resource node) {
+    return comments.getOrDefault(node.getURI(), List.of());
+  }
+
+  @Override
+  public void onApplicationEvent(DatasetChangeEvent event) {
+    try {
+      if (event.isReload() || affectsHierarchy(event)) {
+        reload();
+      }
+    } catch (RuntimeException e) {
+      // Without a reliable index the hierarchy is queried from the database again
+      log.warn("Hierarchy index is disabled until the next reload: {}", e.getMessage());
+      synchronized (this) {
+        ready = false;
+      }
+    }
+  }
+
+  private synchronized boolean affectsHierarchy(DatasetChangeEvent event) {
+    return Stream
+        .of(event.getRemoved(), event.getAdded())
+        .flatMap(model -> model.listStatements().toList().stream())
+        .anyMatch(stmt -> HIERARCHY_PROPERTIES.contains(stmt.getPredicate())
+            || (DESCRIPTION_PROPERTIES.contains(stmt.getPredicate())
+                && stmt.getSubject().isURIResource()
+                && labels.containsKey(stmt.getSubject().getURI())));
+  }
+
+  private void reload() {
+    Map<String, Set<String>> direct = new HashMap<>();
+    Map<String, List<Literal>> loadedLabels = new HashMap<>();
+    Map<String, List<Literal>> loadedComments = new HashMap<>();
+    Set<String> loadedDisplayable = new HashSet<>();
+    Set<String> loadedProperties = new HashSet<>();
+    SelectBuilder edges = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_CHILD)
+        .addVar(VAR_PREDICATE)
+        .addVar(VAR_PARENT);
+    ExprFactory ef = edges.getExprFactory();
+    edges
+        .addWhere(VAR_CHILD, VAR_PREDICATE, VAR_PARENT)
+        .addFilter(ef.in(VAR_PREDICATE, RDFS.subClassOf, RDFS.subPropertyOf))
+        .addFilter(ef.isIRI(VAR_CHILD))
+        .addFilter(ef.isIRI(VAR_PARENT));
+    jenaService.select(edges, row -> {
+      String child = row.getResource(VAR_CHILD.getName()).getURI();
+      String parent = row.getResource(VAR_PARENT.getName()).getURI();
+      direct.computeIfAbsent(child, k -> new HashSet<>());
+      direct.computeIfAbsent(parent, k -> new HashSet<>());
+      if (RDFS.subPropertyOf.equals(row.getResource(VAR_PREDICATE.getName()))) {
+        loadedProperties.add(child);
+        loadedProperties.add(parent);
+      }
+      if (!child.equals(parent)) {
+        direct.get(child).add(parent);
+      }
+    });
+    SelectBuilder descriptions = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_NODE)
+        .addVar(VAR_LABEL)
+        .addVar(VAR_COMMENT)
+        .addVar(VAR_DISPLAYABLE)
+        .addWhere(new WhereBuilder()
+            .addWhere(VAR_NODE, VAR_PREDICATE, VAR_PARENT)
+            .addUnion(new WhereBuilder().addWhere(VAR_CHILD, VAR_PREDICATE, VAR_NODE)))
+        .addFilter(ef.in(VAR_PREDICATE, RDFS.subClassOf, RDFS.subPropertyOf))
+        .addFilter(ef.isIRI(VAR_NODE))
+        .addOptional(VAR_NODE, RDFS.label, VAR_LABEL)
+        .addOptional(VAR_NODE, RDFS.comment, VAR_COMMENT)
+        .addOptional(VAR_NODE, Api.displayable, VAR_DISPLAYABLE);
+    jenaService.select(descriptions, row -> {
+      String node = row.getResource(VAR_NODE.getName()).getURI();
+      Optional
+          .ofNullable(row.getLiteral(VAR_LABEL.getName()))
+          .ifPresent(label -> addDistinct(loadedLabels, node, label));
+      Optional
+          .ofNullable(row.getLiteral(VAR_COMMENT.getName()))
+          .ifPresent(comment -> addDistinct(loadedComments, node, comment));
+      if (row.contains(VAR_DISPLAYABLE.getName())) {
+        loadedDisplayable.add(node);
+      }
+    });
+    direct.keySet().forEach(node -> loadedLabels.putIfAbsent(node, List.of()));
+    index(direct, loadedLabels, loadedComments, loadedDisplayable, loadedProperties);
+  }
+
+  private synchronized void index(Map<String, Set<String>> direct,
+      Map<String, List<Literal>> loadedLabels, Map<String, List<Literal>> loadedComments,
+      Set<String> loadedDisplayable, Set<String> loadedProperties) {
+    // The closure of the loaded relations, the reasoner might not provide all of them
+    Map<String, Set<String>> closure = new HashMap<>();
+    direct.keySet().forEach(node -> closure.put(node, reachable(node, direct)));
+    // Only keep the parents that are not an ancestor of another parent
+    Map<String, Set<String>> reduced = new HashMap<>();
+    closure.forEach((node, nodeAncestors) -> reduced.put(node, nodeAncestors
+        .stream()
+        .filter(candidate -> nodeAncestors
+            .stream()
+            .noneMatch(other -> !other.equals(candidate)
+                && closure.get(other).contains(candidate)
+                && !closure.get(candidate).contains(other)))
+        .collect(Collectors.toSet())));
+    Map<String, Map<String, Integer>> depths = new HashMap<>();
+    reduced.keySet().forEach(node -> depths.put(node, distances(node, reduced)));
+    Map<String, Set<String>> reversedClosure = new HashMap<>();
+    Map<String, Set<String>> reversed = new HashMap<>();
+    closure.forEach((node, nodeAncestors) -> nodeAncestors.forEach(
+        a -> reversedClosure.computeIfAbsent(a, k -> new HashSet<>()).add(node)));
+    reduced.forEach((node, nodeParents) -> nodeParents.forEach(
+        p -> reversed.computeIfAbsent(p, k -> new HashSet<>()).add(node)));
+    ancestors = depths;
+    descendants = reversedClosure;
+    children = reversed;
+    labels = loadedLabels;
+    comments = loadedComments;
+    displayable = loadedDisplayable;
+    properties = loadedProperties;
+    ready = true;
+    log.info("Loaded the hierarchy of {} classes and properties", labels.size());
+  }
+
+  private void addDistinct(Map<String, List<Literal>> target, String node, Literal literal) {
+    List<Literal> literals = target.computeIfAbsent(node, k -> new ArrayList<>());
+    if (!literals.contains(literal)) {
+      literals.add(literal);
+    }
+  }
+
+  private Set<String> reachable(String node, Map<String, Set<String>> edges) {
+    Set<String> visited = new HashSet<>();
+    Deque<String> queue = new ArrayDeque<>(edges.getOrDefault(node, Set.of()));
+    while (!queue.isEmpty()) {
+      String next = queue.poll();
+      if (!next.equals(node) && visited.add(next)) {
+        queue.addAll(edges.getOrDefault(next, Set.of()));
+      }
+    }
+    return visited;
+  }
+
+  private Map<String, Integer> distances(String node, Map<String, Set<String>> edges) {
+    Map<String, Integer> distances = new HashMap<>();
+    Deque<String> queue = new ArrayDeque<>();
+    queue.add(node);
+    distances.put(node, 0);
+    while (!queue.isEmpty()) {
+      String next = queue.poll();
+      for (String parent : edges.getOrDefault(next, Set.of())) {
+        if (!distances.containsKey(parent)) {
+          distances.put(parent, distances.get(next) + 1);
+          queue.add(parent);
+        }
+      }
+    }
+    distances.remove(node);
+    return distances;
+  }
+
+  private Map<String, Integer> ancestorsOf(String node) {
+    return ancestors.getOrDefault(node, Map.of());
+  }
+
+  // The nodes of the candidates that are kept and not an ancestor of another kept candidate
+  private Set<Resource> closest(Set<String> candidates, Set<String> kept) {
+    Set<String> keptCandidates =
+        candidates.stream().filter(kept::contains).collect(Collectors.toSet());
+    return keptCandidates
+        .stream()
+        .filter(candidate -> keptCandidates
+            .stream()
+            .noneMatch(other -> !other.equals(candidate)
+                && ancestorsOf(other).containsKey(candidate)
+                && !ancestorsOf(candidate).containsKey(other)))
+        .map(this::resource)
+        .collect(Collectors.toSet());
+  }
+
+  private Resource resource(String iri) {
+    return ResourceFactory.createResource(iri);
+  }
+}
@@ -1,22 +1,50 @@
 package eu.nampi.backend.service;
 
+import java.util.List;
 import java.util.function.Consumer;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.update.UpdateRequest;
 
 public interface JenaService {
 
   public boolean ask(AskBuilder askBuilder);
 
+  public boolean ask(Query query);
+
+  /**
+   * Runs the query against the data without any inferred statements and passes the constructed
+   * triples on to the output, which is neither started nor finished.
+   */
+  public void constructData(Query query, StreamRDF output);
+
   public int count(WhereBuilder whereBuilder, Node distinctVariable);
 
   public void initInfCache();
 
   public void select(SelectBuilder selectBuilder, Consumer<QuerySolution> rowAction);
 
-  public void update(UpdateBuilder updateBuilder);
+  public void select(Query query, Consumer<QuerySolution> rowAction);
+
+  public boolean update(UpdateBuilder updateBuilder);
+
+  public boolean update(List<UpdateRequest> requests);
+
+  /**
+   * Runs the query against the data without any inferred statements.
+   */
+  public void selectData(Query query, Consumer<QuerySolution> rowAction);
+
+  /**
+   * Runs the update in both datasets and publishes the provided changes, which the caller already
+   * resolved, instead of querying them before the update.
+   */
+  public void update(UpdateRequest request, Model removed, Model added);
 }
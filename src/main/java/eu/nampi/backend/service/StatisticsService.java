@@ -0,0 +1,262 @@
+package eu.nampi.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.model.Facet;
+import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Core;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps running counts of the individuals per type and of the events per facet value. The counts
+ * are loaded when the inference cache is built and afterwards only the resources touched by an
+ * update are queried again, outside of the request that made the update. Until then no counts
+ * are provided and the caches are cleared again once they are up to date. The facet values are
+ * followed along the plain facet paths, without the labels and main participants the event
+ * collection requires, so the facet counts are upper bounds of the matching events.
+ */
+@Slf4j
+@Service
+public class StatisticsService implements ApplicationListener<DatasetChangeEvent> {
+
+  private static final int BATCH_SIZE = 500;
+  private static final String TYPE = "type";
+  private static final Node VAR_FACET = NodeFactory.createVariable("facet");
+  private static final Node VAR_SUBJECT = NodeFactory.createVariable("subject");
+  private static final Node VAR_VALUE = NodeFactory.createVariable("value");
+
+  @Autowired
+  private JenaService jenaService;
+
+  @Autowired
+  private TaskExecutor taskExecutor;
+
+  @Autowired
+  private CacheService cacheService;
+
+  // The statistic keys each resource contributes to
+  private final Map<String, Set<String>> contributions = new HashMap<>();
+
+  private final Map<String, Integer> counts = new HashMap<>();
+
+  private final Map<String, String> keys = new HashMap<>();
+
+  private boolean ready = false;
+
+  // The number of changes whose counts are not refreshed yet
+  private int pending = 0;
+
+  public synchronized Optional<Integer> count(Resource type) {
+    return count(TYPE + " " + type.getURI());
+  }
+
+  public synchronized Optional<Integer> count(Facet facet, Resource value) {
+    return count(facet.getName() + " " + value.getURI());
+  }
+
+  public synchronized Map<Resource, Integer> typeCounts() {
+    return counts(TYPE);
+  }
+
+  public synchronized Map<Resource, Integer> facetCounts(Facet facet) {
+    return counts(facet.getName());
+  }
+
+  @Override
+  public void onApplicationEvent(DatasetChangeEvent event) {
+    // The subjects are collected before the models of the event are reused
+    List<Resource> subjects = event.isReload() ? List.of() : changedSubjects(event);
+    synchronized (this) {
+      pending++;
+    }
+    taskExecutor.execute(() -> {
+      try {
+        refresh(event.isReload(), subjects);
+      } finally {
+        synchronized (this) {
+          pending--;
+        }
+        // Requests that read the old counts before the change may have cached them since
+        cacheService.clear();
+      }
+    });
+  }
+
+  private void refresh(boolean reload, List<Resource> subjects) {
+    try {
+      if (reload) {
+        rebuild();
+      } else {
+        update(withInterpretedEvents(subjects));
+      }
+    } catch (RuntimeException e) {
+      // Without reliable statistics the counts are queried from the database again
+      log.warn("Statistics are disabled until the next reload: {}", e.getMessage());
+      synchronized (this) {
+        ready = false;
+      }
+    }
+  }
+
+  private List<Resource> changedSubjects(DatasetChangeEvent event) {
+    // Helper data in the API namespace does not affect any statistic
+    return Stream
+        .of(event.getRemoved(), event.getAdded())
+        .flatMap(model -> model.listStatements().toList().stream())
+        .filter(stmt -> !stmt.getPredicate().getURI().startsWith(Api.getURI()))
+        .map(Statement::getSubject)
+        .filter(Resource::isURIResource)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Adds the events that interpret the changed subjects, because the author and source facets of
+   * an event are stored on its act.
+   */
+  private List<Resource> withInterpretedEvents(List<Resource> subjects) {
+    Set<Resource> all = new LinkedHashSet<>(subjects);
+    for (int i = 0; i < subjects.size(); i += BATCH_SIZE) {
+      List<Resource> batch = subjects.subList(i, Math.min(i + BATCH_SIZE, subjects.size()));
+      SelectBuilder events = new SelectBuilder()
+          .setDistinct(true)
+          .addVar(VAR_SUBJECT)
+          .addWhereValueVar(VAR_VALUE, batch.toArray())
+          .addWhere(VAR_SUBJECT, Core.isInterpretationOf, VAR_VALUE);
+      jenaService.select(events, row -> all.add(row.getResource(VAR_SUBJECT.getName())));
+    }
+    return new ArrayList<>(all);
+  }
+
+  private synchronized void rebuild() {
+    contributions.clear();
+    counts.clear();
+    keys.clear();
+    load(Optional.empty()).forEach((subject, subjectKeys) -> apply(subject, subjectKeys));
+    ready = true;
+    log.info("Loaded statistics for {} resources", contributions.size());
+  }
+
+  private synchronized void update(List<Resource> subjects) {
+    if (!ready) {
+      return;
+    }
+    for (int i = 0; i < subjects.size(); i += BATCH_SIZE) {
+      List<Resource> batch = subjects.subList(i, Math.min(i + BATCH_SIZE, subjects.size()));
+      Map<String, Set<String>> loaded = load(Optional.of(batch));
+      batch.forEach(subject -> apply(subject.getURI(),
+          loaded.getOrDefault(subject.getURI(), new HashSet<>())));
+    }
+  }
+
+  private void apply(String subject, Set<String> current) {
+    Set<String> previous = Optional.ofNullable(contributions.get(subject)).orElse(new HashSet<>());
+    previous.stream().filter(key -> !current.contains(key)).forEach(key -> change(key, -1));
+    current.stream().filter(key -> !previous.contains(key)).forEach(key -> change(key, 1));
+    if (current.isEmpty()) {
+      contributions.remove(subject);
+    } else {
+      contributions.put(subject, current);
+    }
+  }
+
+  private void change(String key, int delta) {
+    int count = counts.getOrDefault(key, 0) + delta;
+    if (count > 0) {
+      counts.put(key, count);
+    } else {
+      counts.remove(key);
+      keys.remove(key);
+    }
+  }
+
+  private Optional<Integer> count(String key) {
+    return ready && pending == 0 ? Optional.of(counts.getOrDefault(key, 0)) : Optional.empty();
+  }
+
+  private Map<Resource, Integer> counts(String name) {
+    String prefix = name + " ";
+    return counts
+        .entrySet()
+        .stream()
+        .filter(e -> e.getKey().startsWith(prefix))
+        .collect(Collectors.toMap(
+            e -> ResourceFactory.createResource(e.getKey().substring(prefix.length())),
+            e -> e.getValue()));
+  }
+
+  private String key(String name, String value) {
+    String key = name + " " + value;
+    return keys.computeIfAbsent(key, k -> k);
+  }
+
+  private Map<String, Set<String>> load(Optional<Collection<Resource>> subjects) {
+    Map<String, Set<String>> loaded = new HashMap<>();
+    // Types of all individuals, classes and properties are excluded
+    SelectBuilder types = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_SUBJECT)
+        .addVar(VAR_VALUE);
+    ExprFactory ef = types.getExprFactory();
+    subjects.ifPresent(s -> types.addWhereValueVar(VAR_SUBJECT, s.toArray()));
+    types
+        .addWhere(VAR_SUBJECT, RDF.type, VAR_VALUE)
+        .addFilter(ef.isIRI(VAR_SUBJECT))
+        .addFilter(ef.isIRI(VAR_VALUE))
+        .addFilter(ef.notexists(new WhereBuilder().addWhere(VAR_SUBJECT, RDF.type, RDFS.Class)))
+        .addFilter(
+            ef.notexists(new WhereBuilder().addWhere(VAR_SUBJECT, RDF.type, RDF.Property)));
+    jenaService.select(types, row -> loaded
+        .computeIfAbsent(row.getResource(VAR_SUBJECT.getName()).getURI(), k -> new HashSet<>())
+        .add(key(TYPE, row.getResource(VAR_VALUE.getName()).getURI())));
+    // Facet values of all events, the types are already counted above
+    WhereBuilder facetUnion = new WhereBuilder();
+    for (Facet facet : Facet.values()) {
+      if (facet == Facet.TYPE) {
+        continue;
+      }
+      facetUnion.addUnion(new WhereBuilder()
+          .addWhere(VAR_SUBJECT, facet.getPath(), VAR_VALUE)
+          .addBind(ef.asExpr(ResourceFactory.createPlainLiteral(facet.getName())), VAR_FACET));
+    }
+    SelectBuilder facets = new SelectBuilder()
+        .setDistinct(true)
+        .addVar(VAR_SUBJECT)
+        .addVar(VAR_FACET)
+        .addVar(VAR_VALUE);
+    subjects.ifPresent(s -> facets.addWhereValueVar(VAR_SUBJECT, s.toArray()));
+    facets
+        .addWhere(VAR_SUBJECT, RDF.type, Core.event)
+        .addWhere(facetUnion)
+        .addFilter(ef.isIRI(VAR_VALUE));
+    jenaService.select(facets, row -> loaded
+        .computeIfAbsent(row.getResource(VAR_SUBJECT.getName()).getURI(), k -> new HashSet<>())
+        .add(key(row.getLiteral(VAR_FACET.getName()).getString(),
+            row.getResource(VAR_VALUE.getName()).getURI())));
+    return loaded;
+  }
+}
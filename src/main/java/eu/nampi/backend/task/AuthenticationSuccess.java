@@ -1,14 +1,29 @@
 package eu.nampi.backend.task;
 
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.stereotype.Component;
 import eu.nampi.backend.model.Author;
+import eu.nampi.backend.model.User;
 import eu.nampi.backend.repository.AuthorRepository;
 import eu.nampi.backend.repository.UserRepository;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Synchronizes the author of the authenticated user with Keycloak. Because every request is
+ * authenticated on its own, each author and label is only synchronized once in the configured
+ * time span. A missing author is created before the request continues, label updates run outside
+ * of the request thread.
+ */
 @Slf4j
 @Component
 public class AuthenticationSuccess implements ApplicationListener<AuthenticationSuccessEvent> {
@@ -16,9 +31,23 @@ public class AuthenticationSuccess implements ApplicationListener<Authentication
   @Autowired
   AuthorRepository authorRepository;
 
+  @Autowired
+  TaskExecutor taskExecutor;
+
   @Autowired
   UserRepository userRepository;
 
+  @Value("${nampi.author-sync-seconds}")
+  long syncSeconds;
+
+  private final Map<UUID, Synced> synced = new ConcurrentHashMap<>();
+
+  @AllArgsConstructor
+  private static class Synced {
+    String label;
+    Instant expires;
+  }
+
   @Override
   public void onApplicationEvent(AuthenticationSuccessEvent event) {
     boolean notAuthor = event
@@ -30,20 +59,47 @@ public class AuthenticationSuccess implements ApplicationListener<Authentication
     if (notAuthor) {
       return;
     }
-    userRepository
-        .getCurrentUser()
-        .ifPresent(u -> authorRepository
-            .findOne(u.getRdfId())
-            .ifPresentOrElse(a -> {
-              if (!a.getLabel().equals(u.getLabel())) {
-                // Label has changed in Keycloak
-                Author updated = authorRepository.updateLabel(a, u.getLabel());
-                log.debug("Updated label to {} for author {}", u.getLabel(), updated);
-              }
-            }, () -> {
-              // Add new author
-              Author newAuthor = authorRepository.addOne(u.getRdfId(), u.getLabel());
-              log.debug("Added new author {}", newAuthor);
-            }));
+    // The user needs to be read from the security context of the request thread
+    userRepository.getCurrentUser().ifPresent(u -> {
+      Instant now = Instant.now();
+      Synced current = new Synced(u.getLabel(), now.plusSeconds(syncSeconds));
+      Synced previous = synced.put(u.getRdfId(), current);
+      if (previous != null && previous.label.equals(u.getLabel())
+          && previous.expires.isAfter(now)) {
+        // Keep the original expiry so the author is synchronized again eventually
+        synced.replace(u.getRdfId(), current, previous);
+        return;
+      }
+      synced.values().removeIf(s -> s.expires.isBefore(now));
+      try {
+        Optional<Author> author = authorRepository.findOne(u.getRdfId());
+        if (author.isEmpty()) {
+          // The request may already need the author, so it is added right away
+          Author newAuthor = authorRepository.addOne(u.getRdfId(), u.getLabel());
+          log.debug("Added new author {}", newAuthor);
+          return;
+        }
+        if (author.get().getLabel().equals(u.getLabel())) {
+          return;
+        }
+        taskExecutor.execute(() -> {
+          try {
+            // Label has changed in Keycloak
+            Author updated = authorRepository.updateLabel(author.get(), u.getLabel());
+            log.debug("Updated label to {} for author {}", u.getLabel(), updated);
+          } catch (RuntimeException e) {
+            retryLater(u, current, e);
+          }
+        });
+      } catch (RuntimeException e) {
+        retryLater(u, current, e);
+      }
+    });
+  }
+
+  private void retryLater(User u, Synced current, RuntimeException e) {
+    // Try again on the next request
+    synced.remove(u.getRdfId(), current);
+    log.warn("Could not synchronize author {}: {}", u.getRdfId(), e.getMessage());
   }
 }
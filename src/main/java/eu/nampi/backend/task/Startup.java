@@ -3,6 +3,7 @@ package eu.nampi.backend.task;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import eu.nampi.backend.repository.EventRepository;
 import eu.nampi.backend.service.JenaService;
 
 @Component
@@ -11,8 +12,12 @@ public class Startup {
   @Autowired
   private JenaService jenaService;
 
+  @Autowired
+  private EventRepository eventRepository;
+
   @PostConstruct
   public void init() {
     jenaService.initInfCache();
+    eventRepository.insertMissingSortDates();
   }
 }
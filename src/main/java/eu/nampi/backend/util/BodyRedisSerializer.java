@@ -0,0 +1,39 @@
+package eu.nampi.backend.util;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Stores cached response bodies gzip compressed and returns them in this form, so cache hits can
+ * be sent to clients that accept gzip without being compressed again. All other values are stored
+ * with Java serialization, whose output always starts with the stream magic number instead of the
+ * gzip one.
+ */
+public class BodyRedisSerializer implements RedisSerializer<Object> {
+
+  private static final byte MAGIC_FIRST = (byte) 0xAC;
+  private static final byte MAGIC_SECOND = (byte) 0xED;
+
+  private final JdkSerializationRedisSerializer objects;
+
+  public BodyRedisSerializer(ClassLoader classLoader) {
+    this.objects = new JdkSerializationRedisSerializer(classLoader);
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    return value instanceof byte[] ? Serializer.compress((byte[]) value) : objects.serialize(value);
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (bytes.length > 1 && bytes[0] == MAGIC_FIRST && bytes[1] == MAGIC_SECOND) {
+      return objects.deserialize(bytes);
+    }
+    return bytes;
+  }
+}
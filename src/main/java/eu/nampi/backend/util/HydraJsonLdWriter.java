@@ -0,0 +1,335 @@
+package eu.nampi.backend.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Writes a graph as compacted JSON-LD framed on a single resource directly to a stream. The output
+ * is the same as the one of the Jena JSON-LD frame writer with jsonld-java but without building
+ * the expanded, flattened, framed and compacted documents in between. The steps of these
+ * algorithms that decide about the order of the output, the blank node identifiers, the embedding
+ * of nodes that are referenced more than once and the selection of terms are reproduced. Graphs
+ * with RDF lists and contexts with a vocabulary mapping are not supported.
+ */
+class HydraJsonLdWriter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final String TYPE_ID = "@id";
+  private static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+
+  private final JsonLdContext context;
+
+  private final Map<String, NodeObject> nodes = new HashMap<>();
+
+  private final Map<String, String> blankNodeIds = new HashMap<>();
+
+  private final Map<String, EmbedNode> embeds = new HashMap<>();
+
+  private final Map<String, List<String>> dependents = new HashMap<>();
+
+  private final Set<String> subjectStack = new HashSet<>();
+
+  private final Map<String, String> keys = new HashMap<>();
+
+  private final Map<String, String> ids = new HashMap<>();
+
+  private final Map<String, String> types = new HashMap<>();
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Value {
+    String value;
+    String language;
+    String type;
+  }
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Reference {
+    String id;
+  }
+
+  private static class NodeObject {
+    Set<String> types = new LinkedHashSet<>();
+    Map<String, Set<Object>> properties = new TreeMap<>();
+  }
+
+  @AllArgsConstructor
+  private static class Embed {
+    String id;
+    Set<String> types;
+    Map<String, List<Object>> properties;
+  }
+
+  @AllArgsConstructor
+  private static class EmbedNode {
+    Embed parent;
+    String property;
+  }
+
+  HydraJsonLdWriter(JsonLdContext context) {
+    this.context = context;
+  }
+
+  static boolean supports(Graph graph, Resource startId, JsonLdContext context) {
+    return startId.isURIResource()
+        && !context.isVocab()
+        && context.isValid()
+        && !graph.contains(Node.ANY, RDF.first.asNode(), Node.ANY)
+        && !graph.contains(Node.ANY, RDF.rest.asNode(), Node.ANY)
+        && !graph.contains(Node.ANY, Node.ANY, RDF.nil.asNode());
+  }
+
+  void write(Graph graph, Resource startId, OutputStream out) throws IOException {
+    createNodeMap(graph);
+    Embed root = (Embed) frame(startId.getURI(), null, null);
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeFieldName("@context");
+      generator.writeRawValue(context.getJson());
+      writeFields(generator, root);
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+  }
+
+  /**
+   * Creates the node map of the framing algorithm. The subjects are processed in the order of the
+   * blank node labels the Jena writer assigns so the blank nodes are renamed in the same order.
+   */
+  private void createNodeMap(Graph graph) {
+    Map<Node, String> labels = new HashMap<>();
+    Map<String, List<Triple>> subjects = new TreeMap<>();
+    graph.find().forEachRemaining(triple -> {
+      String subject = label(labels, triple.getSubject());
+      if (!triple.getObject().isLiteral()) {
+        label(labels, triple.getObject());
+      }
+      subjects.computeIfAbsent(subject, k -> new ArrayList<>()).add(triple);
+    });
+    subjects.forEach((subject, triples) -> {
+      Set<String> nodeTypes = new LinkedHashSet<>();
+      Map<String, List<Object>> properties = new TreeMap<>();
+      for (Triple triple : triples) {
+        Node object = triple.getObject();
+        String predicate = triple.getPredicate().getURI();
+        if (object.isLiteral()) {
+          String language = object.getLiteralLanguage();
+          String type = object.getLiteralDatatypeURI();
+          properties.computeIfAbsent(predicate, k -> new ArrayList<>()).add(language.isEmpty()
+              ? new Value(object.getLiteralLexicalForm(), null,
+                  XSD_STRING.equals(type) ? null : type)
+              : new Value(object.getLiteralLexicalForm(), language.toLowerCase(), null));
+        } else if (RDF.type.getURI().equals(predicate)
+            && !subjects.containsKey(label(labels, object))) {
+          nodeTypes.add(label(labels, object));
+        } else {
+          properties.computeIfAbsent(predicate, k -> new ArrayList<>())
+              .add(new Reference(label(labels, object)));
+        }
+      }
+      // The types are renamed before the subject itself
+      List<String> renamedTypes = new ArrayList<>();
+      nodeTypes.forEach(type -> renamedTypes.add(rename(type)));
+      NodeObject node = nodes.computeIfAbsent(rename(subject), k -> new NodeObject());
+      node.types.addAll(renamedTypes);
+      properties.forEach((property, values) -> {
+        Set<Object> merged = node.properties.computeIfAbsent(property, k -> new LinkedHashSet<>());
+        values.forEach(value -> {
+          if (value instanceof Reference) {
+            String id = rename(((Reference) value).id);
+            nodes.computeIfAbsent(id, k -> new NodeObject());
+            merged.add(new Reference(id));
+          } else {
+            merged.add(value);
+          }
+        });
+      });
+    });
+  }
+
+  private String label(Map<Node, String> labels, Node node) {
+    return node.isBlank()
+        ? labels.computeIfAbsent(node, k -> "_:b" + labels.size())
+        : node.getURI();
+  }
+
+  private String rename(String id) {
+    return id.startsWith("_:")
+        ? blankNodeIds.computeIfAbsent(id, k -> "_:b" + blankNodeIds.size())
+        : id;
+  }
+
+  /**
+   * Embeds the node in the last place it is referenced from, all other places and references
+   * that would create a cycle only refer to it by its id.
+   */
+  private Object frame(String id, Embed parent, String property) {
+    if (subjectStack.contains(id)) {
+      return new Reference(id);
+    }
+    if (embeds.containsKey(id)) {
+      removeEmbed(id);
+    }
+    embeds.put(id, new EmbedNode(parent, property));
+    if (parent != null) {
+      dependents.computeIfAbsent(parent.id, k -> new ArrayList<>()).add(id);
+    }
+    subjectStack.add(id);
+    NodeObject node = nodes.get(id);
+    Embed output = new Embed(id, node.types, new LinkedHashMap<>());
+    node.properties.forEach((prop, values) -> values.forEach(value -> {
+      Object framed = value instanceof Reference ? frame(((Reference) value).id, output, prop)
+          : value;
+      output.properties.computeIfAbsent(prop, k -> new ArrayList<>()).add(framed);
+    }));
+    subjectStack.remove(id);
+    return output;
+  }
+
+  private void removeEmbed(String id) {
+    EmbedNode embed = embeds.get(id);
+    if (embed.parent != null) {
+      embed.parent.properties.get(embed.property).replaceAll(value -> id.equals(idOf(value))
+          ? new Reference(id)
+          : value);
+    }
+    removeDependents(id);
+  }
+
+  private void removeDependents(String id) {
+    List<String> children = dependents.remove(id);
+    if (children == null) {
+      return;
+    }
+    for (String child : children) {
+      EmbedNode embed = embeds.get(child);
+      if (embed != null && embed.parent != null && id.equals(embed.parent.id)) {
+        embeds.remove(child);
+        removeDependents(child);
+      }
+    }
+  }
+
+  private static String idOf(Object value) {
+    if (value instanceof Embed) {
+      return ((Embed) value).id;
+    }
+    return value instanceof Reference ? ((Reference) value).id : null;
+  }
+
+  private void writeFields(JsonGenerator generator, Embed embed) throws IOException {
+    generator.writeStringField("@id", id(embed.id));
+    if (!embed.types.isEmpty()) {
+      generator.writeFieldName("@type");
+      if (embed.types.size() == 1) {
+        generator.writeString(type(embed.types.iterator().next()));
+      } else {
+        generator.writeStartArray();
+        for (String type : embed.types) {
+          generator.writeString(type(type));
+        }
+        generator.writeEndArray();
+      }
+    }
+    for (Map.Entry<String, List<Object>> property : embed.properties.entrySet()) {
+      // Values that don't match the type of the term are written with a compact IRI instead
+      Map<String, List<Object>> byKey = new LinkedHashMap<>();
+      for (Object value : property.getValue()) {
+        byKey.computeIfAbsent(key(property.getKey(), value), k -> new ArrayList<>()).add(value);
+      }
+      for (Map.Entry<String, List<Object>> entry : byKey.entrySet()) {
+        generator.writeFieldName(entry.getKey());
+        if (entry.getValue().size() == 1) {
+          writeValue(generator, entry.getKey(), entry.getValue().get(0));
+        } else {
+          generator.writeStartArray();
+          for (Object value : entry.getValue()) {
+            writeValue(generator, entry.getKey(), value);
+          }
+          generator.writeEndArray();
+        }
+      }
+    }
+  }
+
+  private void writeValue(JsonGenerator generator, String key, Object value) throws IOException {
+    String typeMapping = context.typeOf(key);
+    if (value instanceof Value) {
+      Value literal = (Value) value;
+      if (literal.type != null && literal.type.equals(typeMapping)
+          || literal.type == null && literal.language == null) {
+        generator.writeString(literal.value);
+      } else {
+        generator.writeStartObject();
+        if (literal.language != null) {
+          generator.writeStringField("@language", literal.language);
+        } else {
+          generator.writeStringField("@type", type(literal.type));
+        }
+        generator.writeStringField("@value", literal.value);
+        generator.writeEndObject();
+      }
+    } else if (value instanceof Reference || isReference((Embed) value)) {
+      String id = id(idOf(value));
+      if (TYPE_ID.equals(typeMapping)) {
+        generator.writeString(id);
+      } else {
+        generator.writeStartObject();
+        generator.writeStringField("@id", id);
+        generator.writeEndObject();
+      }
+    } else {
+      generator.writeStartObject();
+      writeFields(generator, (Embed) value);
+      generator.writeEndObject();
+    }
+  }
+
+  private static boolean isReference(Embed embed) {
+    return embed.types.isEmpty() && embed.properties.isEmpty();
+  }
+
+  private String key(String property, Object value) {
+    String type = value instanceof Value ? ((Value) value).type : TYPE_ID;
+    return keys.computeIfAbsent(property + " " + type, k -> {
+      String term = context.term(property, type);
+      return term != null ? term : compactIri(property);
+    });
+  }
+
+  private String id(String id) {
+    return ids.computeIfAbsent(id, this::compactIri);
+  }
+
+  private String type(String type) {
+    return types.computeIfAbsent(type, k -> {
+      String term = context.term(type, TYPE_ID);
+      return term != null ? term : compactIri(type);
+    });
+  }
+
+  private String compactIri(String iri) {
+    String compactIri = context.compactIri(iri);
+    return compactIri != null ? compactIri : iri;
+  }
+}
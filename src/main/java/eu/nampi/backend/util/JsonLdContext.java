@@ -0,0 +1,110 @@
+package eu.nampi.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A JSON-LD context made of prefixes and property terms as created by the {@link Serializer}
+ * together with the inverse context the JSON-LD compaction algorithm selects its terms from.
+ */
+class JsonLdContext {
+
+  private static final Comparator<String> SHORTEST_LEAST =
+      Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+  @AllArgsConstructor
+  private static class Term {
+    String id;
+    String type;
+  }
+
+  @Getter
+  private final String json;
+
+  @Getter
+  private final boolean vocab;
+
+  private final Map<String, Term> terms = new LinkedHashMap<>();
+
+  private final Map<String, String> untypedTerms = new HashMap<>();
+
+  private final Map<String, Map<String, String>> typedTerms = new HashMap<>();
+
+  private final Map<String, String> definedIris = new HashMap<>();
+
+  @SuppressWarnings("unchecked")
+  JsonLdContext(Map<String, Object> context, String json) {
+    this.json = json;
+    this.vocab = context.containsKey("@vocab");
+    context.forEach((term, definition) -> {
+      if (definition instanceof Map) {
+        Map<String, String> map = (Map<String, String>) definition;
+        terms.put(term, new Term(map.get("@id"), map.get("@type")));
+      } else if (!term.startsWith("@")) {
+        terms.put(term, new Term((String) definition, null));
+      }
+    });
+    List<String> sorted = new ArrayList<>(terms.keySet());
+    sorted.sort(SHORTEST_LEAST);
+    for (String name : sorted) {
+      Term term = terms.get(name);
+      definedIris.putIfAbsent(term.id, name);
+      if (term.type == null) {
+        untypedTerms.putIfAbsent(term.id, name);
+      } else {
+        typedTerms.computeIfAbsent(term.id, k -> new HashMap<>()).putIfAbsent(term.type, name);
+      }
+    }
+  }
+
+  /**
+   * Whether all terms can be used as keys of the compacted output.
+   */
+  boolean isValid() {
+    return terms.keySet().stream().noneMatch(term -> term.isEmpty() || term.contains(":"));
+  }
+
+  /**
+   * The type mapping of the term, null if it is not a term or has no type mapping.
+   */
+  String typeOf(String term) {
+    Term definition = terms.get(term);
+    return definition == null ? null : definition.type;
+  }
+
+  /**
+   * The term the IRI is compacted to when used as a key or type for a value of the provided type,
+   * "@id" for node objects and null for plain and language tagged strings.
+   */
+  String term(String iri, String type) {
+    if (!definedIris.containsKey(iri)) {
+      return null;
+    }
+    String typed = type == null ? null : typedTerms.getOrDefault(iri, Map.of()).get(type);
+    return typed != null ? typed : untypedTerms.get(iri);
+  }
+
+  /**
+   * The shortest compact IRI of the IRI, null if no term is a prefix of it.
+   */
+  String compactIri(String iri) {
+    String compactIri = null;
+    for (Map.Entry<String, Term> entry : terms.entrySet()) {
+      String prefix = entry.getValue().id;
+      if (iri.equals(prefix) || !iri.startsWith(prefix)) {
+        continue;
+      }
+      String candidate = entry.getKey() + ":" + iri.substring(prefix.length());
+      if (compactIri == null || SHORTEST_LEAST.compare(candidate, compactIri) < 0) {
+        compactIri = candidate;
+      }
+    }
+    return compactIri;
+  }
+}
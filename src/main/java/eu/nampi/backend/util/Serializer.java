@@ -1,70 +1,188 @@
 package eu.nampi.backend.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.jsonldjava.core.JsonLdOptions;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.impl.Util;
 import org.apache.jena.riot.JsonLDWriteContext;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.riot.RDFWriter;
+import org.apache.jena.util.SplitIRI;
+import org.apache.jena.vocabulary.RDF;
 import org.springframework.stereotype.Component;
 import eu.nampi.backend.exception.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import net.minidev.json.JSONObject;
 
 @Slf4j
 @Component
 public class Serializer {
 
-  public String serialize(Model model, Lang lang) {
-    StringWriter writer = new StringWriter();
-    RDFDataMgr.write(writer, model, lang);
-    return writer.toString();
+  private static final int MAX_CONTEXTS = 256;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final byte GZIP_FIRST = (byte) (GZIPInputStream.GZIP_MAGIC & 0xFF);
+
+  private static final byte GZIP_SECOND = (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+
+  private final Map<List<Map.Entry<String, Object>>, JsonLdContext> contexts =
+      new LinkedHashMap<>(MAX_CONTEXTS, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(
+            Map.Entry<List<Map.Entry<String, Object>>, JsonLdContext> eldest) {
+          return size() > MAX_CONTEXTS;
+        }
+      };
+
+  public byte[] serialize(Model model, Lang lang) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RDFDataMgr.write(out, model, lang);
+    return out.toByteArray();
   }
 
-  public String serialize(Model model, Lang lang, Resource startId) {
+  public byte[] serialize(Model model, Lang lang, Resource startId) {
     if (!model.contains(startId, null, (RDFNode) null)) {
       throw new NotFoundException();
     }
-    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      if (lang == Lang.JSONLD) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (lang == Lang.JSONLD) {
+      JsonLdContext context = context(model);
+      if (HydraJsonLdWriter.supports(model.getGraph(), startId, context)) {
+        try {
+          new HydraJsonLdWriter(context).write(model.getGraph(), startId, out);
+        } catch (IOException e) {
+          log.error(e.getMessage());
+          return new byte[0];
+        }
+      } else {
         JsonLDWriteContext ctx = new JsonLDWriteContext();
         JsonLdOptions options = new JsonLdOptions();
         options.setOmitGraph(true);
-        ctx.setFrame(createFrame(model, startId));
+        ctx.setFrame(createFrame(context, startId));
         ctx.setOptions(options);
         RDFWriter w = RDFWriter.create().format(RDFFormat.JSONLD_FRAME_FLAT).context(ctx)
             .source(model).build();
         w.output(out);
-      } else {
-        RDFDataMgr.write(out, model, lang);
       }
-      return out.toString("UTF-8");
+    } else {
+      RDFDataMgr.write(out, model, lang);
+    }
+    return out.toByteArray();
+  }
+
+  public Model deserialize(byte[] body, Lang lang) {
+    Model model = ModelFactory.createDefaultModel();
+    RDFDataMgr.read(model, new ByteArrayInputStream(decompress(body)), null, lang);
+    return model;
+  }
+
+  /**
+   * Compresses bodies with gzip. Only the bodies stored in the cache are compressed, so cache hits
+   * can be sent to clients that accept gzip without compressing them again.
+   */
+  public static byte[] compress(byte[] body) {
+    if (body.length == 0 || isCompressed(body)) {
+      return body;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(body);
     } catch (IOException e) {
-      log.error(e.getMessage());
-      return "";
+      throw new UncheckedIOException(e);
     }
+    return bytes.toByteArray();
   }
 
-  private String createFrame(Model model, Resource startId) {
-    return "{\"@context\": " + extractContext(model) + ", \"@id\": \"" + startId.toString() + "\"}";
+  public static byte[] decompress(byte[] body) {
+    if (!isCompressed(body)) {
+      return body;
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
-  private String extractContext(Model model) {
-    Configuration conf = Configuration.builder().jsonProvider(new JacksonJsonProvider()).build();
-    StringWriter writer = new StringWriter();
-    RDFDataMgr.write(writer, model, RDFFormat.JSONLD);
-    String serialized = writer.toString().replace("@context", "context");
-    Map<String, String> res = JsonPath.using(conf).parse(serialized).read("$.context");
-    return new JSONObject(res).toJSONString();
+  public static boolean isCompressed(byte[] body) {
+    return body.length > 1 && body[0] == GZIP_FIRST && body[1] == GZIP_SECOND;
+  }
+
+  private String createFrame(JsonLdContext context, Resource startId) {
+    return "{\"@context\": " + context.getJson() + ", \"@id\": \"" + startId.toString() + "\"}";
+  }
+
+  /**
+   * Creates the same context the Jena JSON-LD writer would create for the model without writing
+   * the model: one term per local name of the predicates except rdf:type, defined by the first
+   * triple that uses it, followed by all prefixes. Contexts are only serialized once per
+   * sequence of terms.
+   */
+  JsonLdContext context(Model model) {
+    Map<String, Object> context = new LinkedHashMap<>();
+    model.getGraph().find().forEachRemaining(triple -> {
+      Node predicate = triple.getPredicate();
+      if (predicate.equals(RDF.type.asNode())) {
+        return;
+      }
+      String term = SplitIRI.localname(predicate.getURI());
+      if (context.containsKey(term)) {
+        return;
+      }
+      Node object = triple.getObject();
+      Map<String, String> definition = new LinkedHashMap<>();
+      definition.put("@id", predicate.getURI());
+      if (object.isBlank() || object.isURI()) {
+        definition.put("@type", "@id");
+      } else if (!object.isLiteral()) {
+        return;
+      } else if (object.getLiteralDatatypeURI() == null) {
+        context.put(term, predicate.getURI());
+        return;
+      } else if (!Util.isLangString(object) && !Util.isSimpleString(object)) {
+        definition.put("@type", object.getLiteralDatatypeURI());
+      }
+      context.put(term, definition);
+    });
+    model.getNsPrefixMap()
+        .forEach((prefix, uri) -> context.put(prefix.isEmpty() ? "@vocab" : prefix, uri));
+    // The order of the entries decides the order of the written context
+    List<Map.Entry<String, Object>> key = new ArrayList<>(context.entrySet());
+    synchronized (contexts) {
+      JsonLdContext cached = contexts.get(key);
+      if (cached == null) {
+        try {
+          // Written from a copy sized for its entries to keep the established key order
+          cached = new JsonLdContext(context,
+              OBJECT_MAPPER.writeValueAsString(new HashMap<>(context)));
+        } catch (JsonProcessingException e) {
+          throw new IllegalStateException(e);
+        }
+        contexts.put(key, cached);
+      }
+      return cached;
+    }
   }
 }
@@ -0,0 +1,68 @@
+package eu.nampi.backend.util;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces blank nodes with skolem IRIs that only depend on the resource and property they belong
+ * to and on their own statements. The same date or source location therefore gets the same IRI
+ * in every export and change log entry, no matter which query returned it.
+ */
+@Component
+public class Skolemizer {
+
+  private static final String GENID_PATH = "/.well-known/genid/";
+
+  public Model skolemize(Model model) {
+    Graph graph = model.getGraph();
+    Map<Node, Node> iris = new HashMap<>();
+    graph.find().forEachRemaining(triple -> {
+      if (triple.getObject().isBlank()) {
+        iris.computeIfAbsent(triple.getObject(),
+            blank -> iri(graph, triple.getSubject(), triple.getPredicate(), blank));
+      }
+    });
+    graph.find().forEachRemaining(triple -> {
+      if (triple.getSubject().isBlank()) {
+        iris.computeIfAbsent(triple.getSubject(), blank -> iri(graph, null, null, blank));
+      }
+    });
+    Model skolemized = ModelFactory.createDefaultModel().setNsPrefixes(model.getNsPrefixMap());
+    graph.find().forEachRemaining(triple -> skolemized.getGraph().add(Triple.create(
+        iris.getOrDefault(triple.getSubject(), triple.getSubject()),
+        triple.getPredicate(),
+        iris.getOrDefault(triple.getObject(), triple.getObject()))));
+    return skolemized;
+  }
+
+  private Node iri(Graph graph, Node owner, Node predicate, Node blank) {
+    boolean hasOwner = owner != null && owner.isURI();
+    String statements = graph
+        .find(blank, Node.ANY, Node.ANY)
+        .mapWith(triple -> NodeFmtLib.str(triple.getPredicate()) + " "
+            + (triple.getObject().isBlank() ? "[]" : NodeFmtLib.str(triple.getObject())))
+        .toList()
+        .stream()
+        .sorted()
+        .collect(Collectors.joining("\n"));
+    String key = hasOwner
+        ? NodeFmtLib.str(owner) + " " + NodeFmtLib.str(predicate) + "\n" + statements
+        : statements;
+    String id = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    return NodeFactory.createURI(hasOwner
+        ? URI.create(owner.getURI()).resolve(GENID_PATH + id).toString()
+        : "urn:uuid:" + id);
+  }
+}
@@ -33,8 +33,14 @@ public class Api {
 
   public static Property ancestorOf = property("ancestorOf");
   public static Property descendantOf = property("descendantOf");
+  public static Property displayable = property("displayable");
   public static Property hierarchyRoot = property("hierarchyRoot");
   public static Property isAuthor = property("isAuthor");
+  public static Property sortDateAscending = property("sortDateAscending");
+  public static Property sortDateDescending = property("sortDateDescending");
+  public static Property statistic = property("statistic");
+  public static Property statisticFacet = property("statisticFacet");
+  public static Property statisticValue = property("statisticValue");
 
   public static Resource actAuthorProp = resource("actAuthorProperty");
   public static Resource actCollection = resource("actCollection");
@@ -51,6 +57,7 @@ public class Api {
   public static Resource eventAspectProp = resource("eventAspectProperty");
   public static Resource eventAuthorProp = resource("eventAuthorProperty");
   public static Resource eventCollection = resource("eventCollection");
+  public static Resource eventDatesMatchProp = resource("eventDatesMatchProperty");
   public static Resource eventDatesProp = resource("eventDatesProperty");
   public static Resource eventOrderByProp = resource("eventOrderByProperty");
   public static Resource eventParticipantTypeProp = resource("eventParticipantTypeProperty");
@@ -58,6 +65,8 @@ public class Api {
   public static Resource eventParticipationTypeProp = resource("eventParticipationTypeProperty");
   public static Resource eventPlaceProp = resource("eventPlaceProperty");
   public static Resource eventSourceProp = resource("eventSourceProperty");
+  public static Resource facets = resource("facets");
+  public static Resource fieldsProp = resource("fieldsProperty");
   public static Resource groupCollection = resource("groupCollection");
   public static Resource groupHasPartProp = resource("groupHasPartProperty");
   public static Resource groupOrderByProp = resource("groupOrderByProperty");
@@ -70,7 +79,9 @@ public class Api {
   public static Resource placeOrderByProp = resource("placeOrderByProperty");
   public static Resource sourceCollection = resource("sourceCollection");
   public static Resource sourceOrderByProp = resource("sourceOrderByProperty");
+  public static Resource statistics = resource("statistics");
   public static Resource textProp = resource("textProperty");
+  public static Resource totalItemsProp = resource("totalItemsProperty");
   public static Resource typeCollection = resource("typeCollection");
   public static Resource typeOrderByProp = resource("typeOrderByProperty");
   public static Resource user = resource("user");
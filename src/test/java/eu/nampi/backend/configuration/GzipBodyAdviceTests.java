@@ -0,0 +1,116 @@
+package eu.nampi.backend.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import eu.nampi.backend.util.Serializer;
+
+class GzipBodyAdviceTests {
+
+  private final byte[] body;
+  private final byte[] cached;
+
+  GzipBodyAdviceTests() {
+    Model model = ModelFactory.createDefaultModel();
+    model.createResource("http://e.org/persons/anna")
+        .addProperty(model.createProperty("http://e.org/name"), "Anna");
+    body = new Serializer().serialize(model, Lang.TURTLE);
+    cached = Serializer.compress(body);
+  }
+
+  @Test
+  void sendsCachedBodiesAsTheyAreToGzipClients() {
+    ServletServerHttpResponse response = response(HttpStatus.OK);
+    assertSame(cached, write(cached, "GET", "deflate, gzip", response));
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+  }
+
+  @Test
+  void decompressesCachedBodiesForOtherClients() {
+    ServletServerHttpResponse response = response(HttpStatus.OK);
+    assertArrayEquals(body, write(cached, "GET", null, response));
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+  }
+
+  @Test
+  void compressesReadsOnlyForGzipClients() {
+    ServletServerHttpResponse response = response(HttpStatus.OK);
+    assertArrayEquals(cached, write(body, "GET", "gzip", response));
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    response = response(HttpStatus.OK);
+    assertSame(body, write(body, "GET", null, response));
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+  }
+
+  @Test
+  void leavesWritesAndErrorsUncompressed() {
+    for (String method : new String[] {"POST", "PUT", "DELETE"}) {
+      ServletServerHttpResponse response = response(HttpStatus.CREATED);
+      assertSame(body, write(body, method, "gzip", response));
+      assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+      assertNull(response.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+    ServletServerHttpResponse response = response(HttpStatus.NOT_FOUND);
+    assertSame(body, write(body, "GET", "gzip", response));
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  void respectsTheQualityValues() {
+    assertEncoded(false, "gzip;q=0");
+    assertEncoded(false, "gzip; q=0.0, deflate");
+    assertEncoded(true, "gzip;q=0.5");
+    assertEncoded(true, "*");
+    assertEncoded(false, "*;q=0");
+    assertEncoded(false, "gzip;q=0, *");
+    assertEncoded(true, "GZIP, *;q=0");
+    assertEncoded(false, "identity");
+  }
+
+  @Test
+  void leavesEmptyBodiesAlone() {
+    byte[] empty = new byte[0];
+    ServletServerHttpResponse response = response(HttpStatus.OK);
+    assertSame(empty, write(empty, "GET", "gzip", response));
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  private void assertEncoded(boolean encoded, String acceptEncoding) {
+    assertArrayEquals(encoded ? cached : body,
+        write(cached, "GET", acceptEncoding, response(HttpStatus.OK)), acceptEncoding);
+    assertArrayEquals(encoded ? cached : body,
+        write(body, "GET", acceptEncoding, response(HttpStatus.OK)), acceptEncoding);
+  }
+
+  private byte[] write(byte[] body, String method, String acceptEncoding,
+      ServletServerHttpResponse response) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/persons");
+    if (acceptEncoding != null) {
+      request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return new GzipBodyAdvice().beforeBodyWrite(body, null, MediaType.TEXT_PLAIN,
+        ByteArrayHttpMessageConverter.class, new ServletServerHttpRequest(request), response);
+  }
+
+  private ServletServerHttpResponse response(HttpStatus status) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setStatus(status.value());
+    return new ServletServerHttpResponse(response);
+  }
+}
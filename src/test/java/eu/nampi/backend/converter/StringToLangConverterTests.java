@@ -0,0 +1,21 @@
+package eu.nampi.backend.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.Test;
+
+class StringToLangConverterTests {
+
+  private final StringToLangConverter converter = new StringToLangConverter();
+
+  @Test
+  void mapsTheThriftMediaType() {
+    assertEquals(Lang.RDFTHRIFT, converter.convert("application/rdf+thrift"));
+    assertEquals(Lang.RDFTHRIFT, converter.convert("Application/RDF+Thrift"));
+  }
+
+  @Test
+  void defaultsToJsonLd() {
+    assertEquals(Lang.JSONLD, converter.convert("application/octet-stream"));
+  }
+}
@@ -0,0 +1,182 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.sparql.core.ResultBinding;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import eu.nampi.backend.service.CacheService;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.util.UrlBuilder;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+class HydraBatchBuilderTests {
+
+  private static final String BASE = "http://e.org";
+  private static final String ENDPOINT = "sources";
+  private static final UUID KNOWN = UUID.randomUUID();
+  private static final UUID CACHED = UUID.randomUUID();
+  private static final UUID UNKNOWN = UUID.randomUUID();
+
+  private static final BiFunction<Model, QuerySolution, RDFNode> ROW_MAPPER = (model, row) -> {
+    Resource main = row.getResource(AbstractHydraBuilder.VAR_MAIN.getName());
+    model.add(main, RDFS.label, "queried");
+    return main;
+  };
+
+  private final Serializer serializer = new Serializer();
+  private HydraBuilderFactory factory;
+  private CacheService cacheService;
+  private List<String> queries;
+
+  @BeforeEach
+  void setUp() {
+    JenaService jenaService = mock(JenaService.class);
+    cacheService = mock(CacheService.class);
+    when(cacheService.get(anyString(), any())).thenReturn(Optional.empty());
+    queries = new ArrayList<>();
+    // The database only knows the known and the cached source
+    doAnswer(invocation -> {
+      String query = invocation.<SelectBuilder>getArgument(0).buildString();
+      queries.add(query);
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      Set.of(KNOWN, CACHED).stream().map(this::member)
+          .filter(member -> query.contains("<" + member.getURI() + ">"))
+          .forEach(member -> rowAction.accept(new ResultBinding(null, BindingFactory
+              .binding(Var.alloc(AbstractHydraBuilder.VAR_MAIN), member.asNode()))));
+      return null;
+    }).when(jenaService).select(any(SelectBuilder.class), any());
+    UrlBuilder urlBuilder = new UrlBuilder();
+    ReflectionTestUtils.setField(urlBuilder, "dataBaseUrl", BASE);
+    factory = new HydraBuilderFactory();
+    factory.serializer = serializer;
+    factory.cacheService = cacheService;
+    factory.jenaService = jenaService;
+    factory.urlBuilder = urlBuilder;
+    ReflectionTestUtils.setField(factory, "crmPrefix", "http://e.org/crm#");
+  }
+
+  @Test
+  void rejectsMoreThanOneHundredIds() {
+    List<UUID> ids = IntStream.range(0, 101).mapToObj(i -> UUID.randomUUID())
+        .collect(Collectors.toList());
+    assertThrows(IllegalArgumentException.class,
+        () -> factory.batchBuilder(ENDPOINT, Core.source, Lang.NTRIPLES, ids));
+    factory.batchBuilder(ENDPOINT, Core.source, Lang.NTRIPLES, ids.subList(0, 100));
+  }
+
+  @Test
+  void requestsDuplicateIdsOnce() {
+    Model result = query(Lang.NTRIPLES, KNOWN, KNOWN);
+    assertEquals(1, queries.size());
+    String query = queries.get(0);
+    String uri = "<" + member(KNOWN).getURI() + ">";
+    assertEquals(query.indexOf(uri), query.lastIndexOf(uri));
+    assertEquals(Set.of(member(KNOWN)), members(result));
+    assertEquals(1, totalItems(result));
+  }
+
+  @Test
+  void leavesOutUnknownIds() {
+    Model result = query(Lang.NTRIPLES, UNKNOWN, KNOWN);
+    assertEquals(Set.of(member(KNOWN)), members(result));
+    assertEquals(1, totalItems(result));
+  }
+
+  @Test
+  void queriesOnlyTheMisses() {
+    cache(Lang.NTRIPLES, CACHED);
+    Model result = query(Lang.NTRIPLES, CACHED, KNOWN, UNKNOWN);
+    assertEquals(1, queries.size());
+    assertFalse(queries.get(0).contains(member(CACHED).getURI()));
+    assertTrue(queries.get(0).contains(member(KNOWN).getURI()));
+    assertEquals(Set.of(member(CACHED), member(KNOWN)), members(result));
+    assertTrue(result.contains(member(CACHED), RDFS.label, "cached"));
+    assertTrue(result.contains(member(KNOWN), RDFS.label, "queried"));
+    assertEquals(2, totalItems(result));
+  }
+
+  @Test
+  void skipsTheQueryWhenAllMembersAreCached() {
+    cache(Lang.RDFTHRIFT, CACHED);
+    Model result = query(Lang.NTRIPLES, CACHED);
+    assertTrue(queries.isEmpty());
+    assertEquals(Set.of(member(CACHED)), members(result));
+  }
+
+  @Test
+  void usesThriftEntriesInsteadOfJsonLd() {
+    cache(Lang.RDFTHRIFT, CACHED);
+    Model result = query(Lang.JSONLD, CACHED, KNOWN);
+    assertFalse(queries.get(0).contains(member(CACHED).getURI()));
+    assertTrue(result.contains(member(CACHED), RDFS.label, "cached"));
+    verify(cacheService, never()).get(eq(ENDPOINT), eq(Arrays.asList(Lang.JSONLD, KNOWN)));
+  }
+
+  @Test
+  void queriesJsonLdEntriesAgain() {
+    cache(Lang.JSONLD, CACHED);
+    Model result = query(Lang.JSONLD, CACHED);
+    assertTrue(queries.get(0).contains(member(CACHED).getURI()));
+    assertTrue(result.contains(member(CACHED), RDFS.label, "queried"));
+    assertFalse(result.contains(member(CACHED), RDFS.label, "cached"));
+  }
+
+  private Model query(Lang lang, UUID... ids) {
+    HydraBatchBuilder builder =
+        factory.batchBuilder(ENDPOINT, Core.source, lang, Arrays.asList(ids));
+    return serializer.deserialize(builder.query(ROW_MAPPER, lang), lang);
+  }
+
+  private void cache(Lang lang, UUID id) {
+    Model model = ModelFactory.createDefaultModel().add(member(id), RDFS.label, "cached");
+    byte[] body = serializer.serialize(model, lang, member(id));
+    when(cacheService.get(ENDPOINT, Arrays.asList(lang, id))).thenReturn(Optional.of(body));
+  }
+
+  private Resource member(UUID id) {
+    return ResourceFactory.createResource(BASE + "/" + ENDPOINT + "/" + id);
+  }
+
+  private Set<RDFNode> members(Model model) {
+    return model.listObjectsOfProperty(Hydra.member).toSet();
+  }
+
+  private int totalItems(Model model) {
+    return model.listObjectsOfProperty(Hydra.totalItems).next().asLiteral().getInt();
+  }
+}
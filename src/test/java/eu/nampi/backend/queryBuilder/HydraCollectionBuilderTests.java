@@ -0,0 +1,147 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.model.Facet;
+import eu.nampi.backend.model.OrderByClauses;
+import eu.nampi.backend.model.QueryParameters;
+import eu.nampi.backend.model.TotalItemsMode;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.service.StatisticsService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+class HydraCollectionBuilderTests {
+
+  private static final String BASE = "http://e.org/";
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private JenaService jenaService;
+  private StatisticsService statistics;
+
+  @BeforeEach
+  void setUp() {
+    Resource first = event("first", true);
+    Resource second = event("second", true);
+    Resource unlabeled = event("unlabeled", false);
+    Resource author = resource("author");
+    first
+        .addProperty(Core.hasParticipant, resource("anna"))
+        .addProperty(Core.hasParticipant, resource("bert"))
+        .addProperty(Core.isInterpretationOf, act("firstAct", author, "source"))
+        .addProperty(Core.isInterpretationOf, act("secondAct", author, "source"))
+        .addProperty(Core.takesPlaceAt, data.createResource());
+    second
+        .addProperty(Core.hasParticipant, resource("anna"))
+        .addProperty(Core.isInterpretationOf, act("thirdAct", author, "otherSource"))
+        .addProperty(Core.takesPlaceAt, resource("place"));
+    unlabeled
+        .addProperty(Core.hasParticipant, resource("anna"))
+        .addProperty(Core.takesPlaceAt, resource("place"));
+    // The statements are queried from the in memory data instead of the database
+    jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      try (QueryExecution execution = QueryExecutionFactory
+          .create(invocation.<SelectBuilder>getArgument(0).build(), data)) {
+        execution.execSelect().forEachRemaining(rowAction);
+      }
+      return null;
+    }).when(jenaService).select(any(SelectBuilder.class), any());
+    when(jenaService.count(any(), any())).thenReturn(3);
+    statistics = mock(StatisticsService.class);
+    when(statistics.count(Core.event)).thenReturn(Optional.of(99));
+  }
+
+  @Test
+  void mapsTheUnionRowsToTheirFacets() {
+    Map<Facet, Map<Resource, Integer>> counts =
+        builder().countFacets(List.of(Facet.PARTICIPANT, Facet.AUTHOR, Facet.SOURCE, Facet.PLACE));
+    assertEquals(Map.of(resource("anna"), 2, resource("bert"), 1),
+        counts.get(Facet.PARTICIPANT));
+    assertEquals(Map.of(resource("author"), 2), counts.get(Facet.AUTHOR));
+    assertEquals(Map.of(resource("source"), 1, resource("otherSource"), 1),
+        counts.get(Facet.SOURCE));
+    assertEquals(Map.of(resource("place"), 1), counts.get(Facet.PLACE));
+  }
+
+  @Test
+  void onlyReturnsTheRequestedFacets() {
+    Map<Facet, Map<Resource, Integer>> counts =
+        builder().countFacets(List.of(Facet.ASPECT, Facet.PLACE));
+    assertEquals(2, counts.size());
+    assertTrue(counts.get(Facet.ASPECT).isEmpty());
+    assertEquals(Map.of(resource("place"), 1), counts.get(Facet.PLACE));
+  }
+
+  @Test
+  void countsNothingWithoutFacets() {
+    assertTrue(builder().countFacets(List.of()).isEmpty());
+  }
+
+  @Test
+  void takesTheTotalItemsOfUnfilteredCollectionsFromTheStatistics() {
+    assertEquals(99, totalItems(collection(Map.of())));
+  }
+
+  @Test
+  void countsTheTotalItemsOfCollectionsOrderedByLabel() {
+    assertEquals(3, totalItems(collection(Map.of("label", Optional.empty()))));
+  }
+
+  private int totalItems(HydraCollectionBuilder builder) {
+    builder.useStatistics().build((model, row) -> row.getResource("main"));
+    return builder.model.getRequiredProperty(builder.root, Hydra.totalItems).getInt();
+  }
+
+  private HydraCollectionBuilder builder() {
+    HydraCollectionBuilder builder = collection(Map.of());
+    builder.coreData.addWhere(AbstractHydraBuilder.VAR_MAIN, RDFS.label,
+        AbstractHydraBuilder.VAR_LABEL);
+    return builder;
+  }
+
+  private HydraCollectionBuilder collection(Map<String, Optional<String>> orderBy) {
+    QueryParameters params = new QueryParameters(BASE + "events", false, 20, 0, "events",
+        new OrderByClauses(orderBy), Optional.empty(), Optional.empty(),
+        TotalItemsMode.EXACT, Optional.empty());
+    return new HydraCollectionBuilder(jenaService, statistics, Runnable::run, new Serializer(),
+        BASE + "events", Core.event, RDFS.label, params, true, true, BASE + "crm#");
+  }
+
+  private Resource event(String name, boolean labeled) {
+    Resource event = resource(name).addProperty(RDF.type, Core.event);
+    return labeled ? event.addProperty(RDFS.label, name) : event;
+  }
+
+  private Resource act(String name, Resource author, String source) {
+    return resource(name)
+        .addProperty(Core.isAuthoredBy, author)
+        .addProperty(Core.hasSourceLocation, data.createResource()
+            .addProperty(Core.hasSource, resource(source)));
+  }
+
+  private Resource resource(String name) {
+    return data.createResource(BASE + name);
+  }
+}
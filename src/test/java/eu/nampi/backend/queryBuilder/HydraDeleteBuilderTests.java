@@ -0,0 +1,105 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.repository.HierarchyRepository;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.vocabulary.Core;
+
+class HydraDeleteBuilderTests {
+
+  private static final String BASE = "http://e.org/places/";
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private final UUID rome = UUID.randomUUID();
+  private final UUID paris = UUID.randomUUID();
+  private JenaService jenaService;
+  private HierarchyRepository hierarchyRepository;
+
+  @BeforeEach
+  void setUp() {
+    place(rome, "Rome");
+    place(paris, "Paris");
+    data.createResource("http://e.org/events/1")
+        .addProperty(Core.takesPlaceAt, data.createResource(BASE + paris));
+    // The state is selected and the update is applied in the in memory data
+    jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      try (QueryExecution execution =
+          QueryExecutionFactory.create(invocation.<Query>getArgument(0), data)) {
+        execution.execSelect().forEachRemaining(rowAction);
+      }
+      return null;
+    }).when(jenaService).selectData(any(), any());
+    doAnswer(invocation -> {
+      UpdateAction.execute(invocation.<UpdateRequest>getArgument(0), data);
+      return null;
+    }).when(jenaService).update(any(UpdateRequest.class), any(), any());
+    hierarchyRepository = mock(HierarchyRepository.class);
+    when(hierarchyRepository.findDescendants(Core.takesPlaceAt))
+        .thenReturn(Set.of(Core.takesPlaceAt));
+  }
+
+  @Test
+  void deletesUnreferencedEntities() {
+    HydraDeleteBuilder builder = builder(rome);
+    assertTrue(builder.build());
+    assertFalse(builder.isReferenced());
+    assertFalse(data.containsResource(builder.root));
+    verify(jenaService).update(any(UpdateRequest.class),
+        argThat(removed -> removed.size() == 2 && removed.contains(builder.root, RDFS.label)),
+        argThat(Model::isEmpty));
+  }
+
+  @Test
+  void keepsReferencedEntitiesWithoutUpdating() {
+    HydraDeleteBuilder builder = builder(paris);
+    assertFalse(builder.build());
+    assertTrue(builder.isReferenced());
+    assertTrue(data.contains(builder.root, RDFS.label));
+    verify(jenaService, never()).update(any(UpdateRequest.class), any(), any());
+  }
+
+  @Test
+  void reportsUnknownEntitiesAsNotReferenced() {
+    HydraDeleteBuilder builder = builder(UUID.randomUUID());
+    assertFalse(builder.build());
+    assertFalse(builder.isReferenced());
+    verify(jenaService, never()).update(any(UpdateRequest.class), any(), any());
+  }
+
+  private HydraDeleteBuilder builder(UUID id) {
+    return new HydraDeleteBuilder(jenaService, hierarchyRepository, null, BASE + id, Core.place,
+        id).unlessReferencedBy(Core.takesPlaceAt);
+  }
+
+  private Resource place(UUID id, String label) {
+    return data.createResource(BASE + id)
+        .addProperty(RDF.type, Core.place)
+        .addProperty(RDFS.label, label);
+  }
+}
@@ -0,0 +1,84 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Serializer;
+import eu.nampi.backend.vocabulary.Api;
+import eu.nampi.backend.vocabulary.Core;
+
+class HydraWriteResultBuilderTests {
+
+  private static final String BASE = "http://e.org/";
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private final Resource birth = data.createResource(BASE + "birth");
+  private final Resource place = data.createResource(BASE + "places/rome");
+  private final Serializer serializer = new Serializer();
+  private JenaService jenaService;
+
+  @BeforeEach
+  void setUp() {
+    data
+        .add(birth, Api.displayable, data.createTypedLiteral(true))
+        .add(place, RDF.type, Core.place)
+        .add(place, RDFS.label, "Rome");
+    // The types and labels are queried from the in memory data instead of the database
+    jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      try (QueryExecution execution = QueryExecutionFactory
+          .create(invocation.<SelectBuilder>getArgument(0).build(), data)) {
+        execution.execSelect().forEachRemaining(rowAction);
+      }
+      return null;
+    }).when(jenaService).select(any(SelectBuilder.class), any());
+  }
+
+  @Test
+  void removesTheApiTriples() {
+    HydraInsertBuilder event = new HydraInsertBuilder(jenaService, null, null, Lang.NTRIPLES,
+        BASE + "events/" + UUID.randomUUID(), List.of(birth), List.of(label("Birth")), List.of(),
+        List.of(), Optional.empty(), UUID.randomUUID());
+    Literal sortDate =
+        ResourceFactory.createTypedLiteral("1900-01-01T00:00:00", XSDDatatype.XSDdateTime);
+    event.addInsert(event.root, Api.sortDateAscending, sortDate);
+    event.addInsert(event.root, Api.sortDateDescending, sortDate);
+    event.addInsert(event.root, Core.takesPlaceAt, place);
+    Model result = serializer.deserialize(new HydraWriteResultBuilder(jenaService, serializer,
+        event.root.getURI(), Core.event, List.of(event), BASE + "crm#").query(Lang.NTRIPLES),
+        Lang.NTRIPLES);
+    assertFalse(result.listStatements().toList().stream()
+        .anyMatch(statement -> statement.getPredicate().getURI().startsWith(Api.getURI())));
+    assertTrue(result.contains(event.root, RDF.type, birth));
+    assertTrue(result.contains(event.root, RDFS.label, label("Birth")));
+    assertTrue(result.contains(event.root, Core.takesPlaceAt, place));
+    assertTrue(result.contains(place, RDFS.label, "Rome"));
+  }
+
+  private Literal label(String text) {
+    return ResourceFactory.createLangLiteral(text, "en");
+  }
+}
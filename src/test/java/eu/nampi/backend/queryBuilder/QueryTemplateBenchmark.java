@@ -0,0 +1,69 @@
+package eu.nampi.backend.queryBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import eu.nampi.backend.vocabulary.Core;
+
+/**
+ * Compares binding the root of a compiled single resource query with building the query for every
+ * request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryTemplateBenchmark {
+
+  private static final Node VAR_MAIN = NodeFactory.createVariable("main");
+  private static final Node VAR_TYPE = NodeFactory.createVariable("type");
+  private static final Node VAR_LABEL = NodeFactory.createVariable("label");
+  private static final Node VAR_COMMENT = NodeFactory.createVariable("comment");
+  private static final Node VAR_TEXT = NodeFactory.createVariable("text");
+  private static final Node VAR_SAME_AS = NodeFactory.createVariable("sameAs");
+
+  private final QueryTemplate template = new QueryTemplate();
+  private final Resource place =
+      ResourceFactory.createResource("http://e.org/places/" + UUID.randomUUID());
+
+  @Benchmark
+  public Query bindTemplate() {
+    return template.bind(() -> shape(VAR_MAIN), Map.of(VAR_MAIN, place));
+  }
+
+  @Benchmark
+  public Query rebuild() {
+    return shape(place.asNode()).build();
+  }
+
+  private SelectBuilder shape(Node main) {
+    return new SelectBuilder()
+        .addVar("*")
+        .addWhere(main, RDF.type, Core.place)
+        .addOptional(main, RDF.type, VAR_TYPE)
+        .addWhere(main, RDFS.label, VAR_LABEL)
+        .addOptional(main, RDFS.comment, VAR_COMMENT)
+        .addOptional(main, Core.hasText, VAR_TEXT)
+        .addOptional(new WhereBuilder().addWhere(main, Core.sameAs, VAR_SAME_AS));
+  }
+}
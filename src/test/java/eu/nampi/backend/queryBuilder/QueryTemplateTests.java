@@ -0,0 +1,88 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.jena.arq.querybuilder.AskBuilder;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.path.PathFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.vocabulary.Core;
+
+class QueryTemplateTests {
+
+  private static final Node VAR_AUTHOR = NodeFactory.createVariable("author");
+  private static final Node VAR_LABEL = NodeFactory.createVariable("label");
+  private static final Node VAR_MAIN = NodeFactory.createVariable("main");
+  private static final Resource AUTHOR = ResourceFactory.createResource("http://e.org/authors/1");
+  private static final Resource EVENT = ResourceFactory.createResource("http://e.org/events/1");
+  private static final Resource OTHER = ResourceFactory.createResource("http://e.org/events/2");
+
+  @Test
+  void buildsTheShapeOnlyOnce() {
+    QueryTemplate template = new QueryTemplate();
+    AtomicInteger builds = new AtomicInteger();
+    Supplier<AskBuilder> shape = () -> {
+      builds.incrementAndGet();
+      return askShape();
+    };
+    for (int i = 0; i < 100; i++) {
+      template.bind(shape, Map.of(VAR_MAIN, EVENT, VAR_AUTHOR, AUTHOR));
+    }
+    assertEquals(1, builds.get());
+  }
+
+  @Test
+  void matchesTheQueryBuiltWithTheValues() {
+    Query bound = new QueryTemplate().bind(this::askShape,
+        Map.of(VAR_MAIN, EVENT, VAR_AUTHOR, AUTHOR));
+    AskBuilder expected = askShape();
+    expected.setVar(VAR_MAIN, EVENT);
+    expected.setVar(VAR_AUTHOR, AUTHOR);
+    assertEquals(QueryFactory.create(expected.buildString()), reparse(bound));
+  }
+
+  @Test
+  void replacesSlotsInNestedGroups() {
+    Supplier<SelectBuilder> shape = () -> new SelectBuilder()
+        .addVar("*")
+        .addWhere(VAR_MAIN, Core.isInterpretationOf, VAR_AUTHOR)
+        .addOptional(new WhereBuilder().addWhere(VAR_MAIN, RDFS.label, VAR_LABEL));
+    Query bound = new QueryTemplate().bind(shape, Map.of(VAR_MAIN, EVENT));
+    SelectBuilder expected = shape.get();
+    expected.setVar(VAR_MAIN, EVENT);
+    assertEquals(QueryFactory.create(expected.buildString()), reparse(bound));
+  }
+
+  @Test
+  void doesNotChangeTheCompiledQuery() {
+    QueryTemplate template = new QueryTemplate();
+    Query first = template.bind(this::askShape, Map.of(VAR_MAIN, EVENT, VAR_AUTHOR, AUTHOR));
+    Query second = template.bind(this::askShape, Map.of(VAR_MAIN, OTHER, VAR_AUTHOR, AUTHOR));
+    assertNotEquals(reparse(first), reparse(second));
+    assertEquals(reparse(first), reparse(
+        template.bind(this::askShape, Map.of(VAR_MAIN, EVENT, VAR_AUTHOR, AUTHOR))));
+  }
+
+  private AskBuilder askShape() {
+    return new AskBuilder().addWhere(VAR_MAIN,
+        PathFactory.pathSeq(PathFactory.pathLink(Core.isInterpretationOf.asNode()),
+            PathFactory.pathLink(Core.isAuthoredBy.asNode())),
+        VAR_AUTHOR);
+  }
+
+  // Compares the queries by their syntax instead of the element classes the transform creates
+  private static Query reparse(Query query) {
+    return QueryFactory.create(query.serialize());
+  }
+}
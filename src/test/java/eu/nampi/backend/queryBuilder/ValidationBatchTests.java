@@ -0,0 +1,103 @@
+package eu.nampi.backend.queryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.vocabulary.Core;
+
+class ValidationBatchTests {
+
+  private static final String BASE = "http://e.org/";
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private final Resource woman = data.createResource(BASE + "woman");
+  private final Resource anna = data.createResource(BASE + "persons/anna");
+  private final Resource created = data.createResource(BASE + "persons/created");
+  private JenaService jenaService;
+
+  @BeforeEach
+  void setUp() {
+    data.add(woman, RDFS.subClassOf, Core.person).add(anna, RDF.type, woman)
+        .add(anna, RDF.type, Core.person);
+    // The checks are queried from the in memory data instead of the database
+    jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      try (QueryExecution execution = QueryExecutionFactory
+          .create(invocation.<SelectBuilder>getArgument(0).build(), data)) {
+        execution.execSelect().forEachRemaining(rowAction);
+      }
+      return null;
+    }).when(jenaService).select(any(SelectBuilder.class), any());
+  }
+
+  @Test
+  void resolvesDeclaredTypesThroughTheHierarchy() {
+    assertDoesNotThrow(() -> new ValidationBatch(jenaService)
+        .declare(created, List.of(woman))
+        .requireType(Core.person, created)
+        .requireType(woman, created)
+        .validate());
+  }
+
+  @Test
+  void rejectsDeclaredTypesOutsideTheHierarchy() {
+    ValidationBatch validation = new ValidationBatch(jenaService)
+        .declare(created, List.of(woman))
+        .context("Line 2: ")
+        .requireType(Core.place, created);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        validation::validate);
+    assertEquals(String.format("Line 2: '%s' is not an individual of '%s'", created, Core.place),
+        e.getMessage());
+  }
+
+  @Test
+  void checksUndeclaredResourcesInTheData() {
+    assertDoesNotThrow(() -> new ValidationBatch(jenaService)
+        .requireType(Core.person, anna)
+        .validate());
+    assertThrows(IllegalArgumentException.class, () -> new ValidationBatch(jenaService)
+        .requireType(Core.person, created)
+        .validate());
+  }
+
+  @Test
+  void prefersTheDeclaredTypesOverTheData() {
+    assertThrows(IllegalArgumentException.class, () -> new ValidationBatch(jenaService)
+        .declare(anna, List.of(Core.place))
+        .requireType(Core.person, anna)
+        .validate());
+  }
+
+  @Test
+  void requiresNewResourcesToBeAbsent() {
+    assertDoesNotThrow(() -> new ValidationBatch(jenaService)
+        .requireAbsent(created)
+        .validate());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> new ValidationBatch(jenaService)
+            .context("Line 3: ")
+            .requireAbsent(created)
+            .requireAbsent(anna)
+            .validate());
+    assertEquals(String.format("Line 3: '%s' already exists", anna), e.getMessage());
+  }
+}
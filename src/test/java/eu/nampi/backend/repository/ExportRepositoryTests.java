@@ -0,0 +1,95 @@
+package eu.nampi.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.service.JenaService;
+import eu.nampi.backend.util.Skolemizer;
+import eu.nampi.backend.vocabulary.Core;
+
+class ExportRepositoryTests {
+
+  private static final int PLACES = 1001;
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private final List<Integer> pages = new ArrayList<>();
+  private final ExportRepository repository = new ExportRepository();
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < PLACES; i++) {
+      data.createResource("http://e.org/places/" + i)
+          .addProperty(RDF.type, Core.place)
+          .addProperty(RDFS.label, "Place " + i)
+          .addProperty(Core.hasText, data.createResource()
+              .addProperty(Core.hasDateTime, "1900-01-01T00:00:00", XSDDatatype.XSDdateTime));
+    }
+    // The members and their statements are queried from the in memory data
+    JenaService jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      List<QuerySolution> rows = new ArrayList<>();
+      try (QueryExecution execution =
+          QueryExecutionFactory.create(invocation.<Query>getArgument(0), data)) {
+        execution.execSelect().forEachRemaining(rows::add);
+      }
+      pages.add(rows.size());
+      rows.forEach(rowAction);
+      return null;
+    }).when(jenaService).select(any(Query.class), any());
+    doAnswer(invocation -> {
+      StreamRDF output = invocation.getArgument(1);
+      try (QueryExecution execution =
+          QueryExecutionFactory.create(invocation.<Query>getArgument(0), data)) {
+        execution.execConstructTriples().forEachRemaining(output::triple);
+      }
+      return null;
+    }).when(jenaService).constructData(any(), any());
+    repository.jenaService = jenaService;
+    repository.skolemizer = new Skolemizer();
+  }
+
+  @Test
+  void exportsTheMembersPageByPage() {
+    Model exported = ModelFactory.createDefaultModel();
+    repository.export(repository.query("places", Optional.empty()),
+        StreamRDFLib.graph(exported.getGraph()));
+    assertEquals(List.of(500, 500, 1), pages);
+    verify(repository.jenaService, times(3)).constructData(any(), any());
+    assertEquals(PLACES, exported.listSubjectsWithProperty(RDF.type, Core.place).toList().size());
+    assertEquals(PLACES * 4, exported.size());
+    // The dates are written with their skolem IRIs
+    assertTrue(exported.listSubjects().toList().stream().allMatch(Resource::isURIResource));
+  }
+
+  @Test
+  void stopsAfterTheLastPage() {
+    data.removeAll();
+    repository.export(repository.query("places", Optional.empty()),
+        StreamRDFLib.graph(ModelFactory.createDefaultModel().getGraph()));
+    assertEquals(List.of(0), pages);
+    verify(repository.jenaService, times(0)).constructData(any(), any());
+  }
+}
@@ -0,0 +1,124 @@
+package eu.nampi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.model.DateRange;
+import eu.nampi.backend.model.DatesMatchMode;
+import eu.nampi.backend.vocabulary.Core;
+
+class EventDateIndexServiceTests {
+
+  private static final String BASE = "http://e.org/events/";
+  private static final Node VAR_EVENT = NodeFactory.createVariable("event");
+  private static final DateRange RANGE = new DateRange(
+      Optional.of(LocalDateTime.of(1900, 1, 1, 0, 0)),
+      Optional.of(LocalDateTime.of(1900, 12, 31, 0, 0)), true);
+
+  private final Model data = ModelFactory.createDefaultModel();
+  private final EventDateIndexService service = new EventDateIndexService();
+
+  @BeforeEach
+  void setUp() {
+    event("exact").addProperty(Core.takesPlaceOn, date("1900-06-01T00:00:00"));
+    // Sorted by its earliest date, which is outside of the range
+    event("wider")
+        .addProperty(Core.takesPlaceNotEarlierThan, date("1899-01-01T00:00:00"))
+        .addProperty(Core.takesPlaceNotLaterThan, date("1901-01-01T00:00:00"));
+    event("inside")
+        .addProperty(Core.takesPlaceNotEarlierThan, day("1900-02-01"))
+        .addProperty(Core.takesPlaceNotLaterThan, day("1900-03-01"));
+    event("openEnd").addProperty(Core.takesPlaceNotEarlierThan, date("1900-05-01T00:00:00"));
+    event("later").addProperty(Core.takesPlaceOn, date("1950-01-01T00:00:00"));
+    event("undated");
+    // The index and the filter are queried from the in memory data instead of the database
+    JenaService jenaService = mock(JenaService.class);
+    doAnswer(invocation -> {
+      Consumer<QuerySolution> rowAction = invocation.getArgument(1);
+      try (QueryExecution execution = QueryExecutionFactory
+          .create(invocation.<SelectBuilder>getArgument(0).build(), data)) {
+        execution.execSelect().forEachRemaining(rowAction);
+      }
+      return null;
+    }).when(jenaService).select(any(SelectBuilder.class), any());
+    ReflectionTestUtils.setField(service, "jenaService", jenaService);
+  }
+
+  @Test
+  void filtersContainedEventsWithoutTheIndex() {
+    assertTrue(service.find(RANGE, DatesMatchMode.CONTAIN).isEmpty());
+    assertEquals(events("exact", "inside"), filtered(DatesMatchMode.CONTAIN));
+  }
+
+  @Test
+  void filtersOverlappingEventsWithoutTheIndex() {
+    assertEquals(events("exact", "wider", "inside", "openEnd"),
+        filtered(DatesMatchMode.OVERLAP));
+  }
+
+  @Test
+  void filtersTheEventsTheIndexFinds() {
+    service.onApplicationEvent(new DatasetChangeEvent(this));
+    for (DatesMatchMode mode : DatesMatchMode.values()) {
+      assertEquals(new HashSet<>(service.find(RANGE, mode).get()), filtered(mode));
+    }
+  }
+
+  private Set<Resource> filtered(DatesMatchMode mode) {
+    SelectBuilder select = new SelectBuilder()
+        .addVar(VAR_EVENT)
+        .addWhere(VAR_EVENT, RDF.type, Core.event)
+        .addFilter(service.filter(VAR_EVENT, RANGE, mode));
+    Set<Resource> events = new HashSet<>();
+    try (QueryExecution execution = QueryExecutionFactory.create(select.build(), data)) {
+      execution.execSelect()
+          .forEachRemaining(row -> events.add(row.getResource(VAR_EVENT.getName())));
+    }
+    return events;
+  }
+
+  private Set<Resource> events(String... names) {
+    Set<Resource> events = new HashSet<>();
+    List.of(names).forEach(name -> events.add(data.createResource(BASE + name)));
+    return events;
+  }
+
+  private Resource event(String name) {
+    return data.createResource(BASE + name).addProperty(RDF.type, Core.event);
+  }
+
+  private Resource date(String dateTime) {
+    return dated(dateTime, XSDDatatype.XSDdateTime);
+  }
+
+  private Resource day(String date) {
+    return dated(date, XSDDatatype.XSDdate);
+  }
+
+  private Resource dated(String value, XSDDatatype type) {
+    return data.createResource().addProperty(Core.hasDateTime, value, type);
+  }
+}
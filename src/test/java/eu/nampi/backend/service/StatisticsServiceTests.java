@@ -0,0 +1,48 @@
+package eu.nampi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import eu.nampi.backend.event.DatasetChangeEvent;
+import eu.nampi.backend.vocabulary.Core;
+
+class StatisticsServiceTests {
+
+  private final StatisticsService service = new StatisticsService();
+  private final CacheService cacheService = mock(CacheService.class);
+  private final List<Runnable> tasks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(service, "jenaService", mock(JenaService.class));
+    ReflectionTestUtils.setField(service, "cacheService", cacheService);
+    ReflectionTestUtils.setField(service, "taskExecutor", (TaskExecutor) tasks::add);
+    ReflectionTestUtils.setField(service, "ready", true);
+  }
+
+  @Test
+  void providesNoCountsUntilTheChangeIsApplied() {
+    assertEquals(Optional.of(0), service.count(Core.event));
+    Model added = ModelFactory.createDefaultModel();
+    added.createResource("http://e.org/events/1").addProperty(RDF.type, Core.event);
+    service.onApplicationEvent(
+        new DatasetChangeEvent(this, ModelFactory.createDefaultModel(), added));
+    assertTrue(service.count(Core.event).isEmpty());
+    verify(cacheService, never()).clear();
+    tasks.forEach(Runnable::run);
+    assertEquals(Optional.of(0), service.count(Core.event));
+    verify(cacheService).clear();
+  }
+}
@@ -0,0 +1,50 @@
+package eu.nampi.backend.util;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+/**
+ * Collection pages shaped like the ones the API serves, shared by the serialization benchmarks.
+ */
+class BenchmarkModels {
+
+  static final String BASE = "http://e.org/";
+
+  private BenchmarkModels() {}
+
+  static Resource root(Model model) {
+    return model.createResource(BASE + "events");
+  }
+
+  static Model events(int members) {
+    Model model = ModelFactory.createDefaultModel();
+    model.setNsPrefix("core", Core.getURI());
+    model.setNsPrefix("hydra", Hydra.getURI());
+    model.setNsPrefix("rdfs", RDFS.getURI());
+    Resource root = root(model)
+        .addProperty(RDF.type, Hydra.Collection)
+        .addLiteral(Hydra.totalItems, model.createTypedLiteral(members));
+    for (int i = 0; i < members; i++) {
+      Resource person = model.createResource(BASE + "persons/" + i)
+          .addProperty(RDF.type, Core.person)
+          .addProperty(RDFS.label, "Person " + i, "en")
+          .addProperty(OWL.sameAs, model.createResource("http://other.org/persons/" + i));
+      root.addProperty(Hydra.member, model.createResource(BASE + "events/" + i)
+          .addProperty(RDF.type, Core.event)
+          .addProperty(RDFS.label, "Birth " + i, "en")
+          .addProperty(RDFS.comment, "The birth of person " + i)
+          .addProperty(Core.startsLifeOf, person)
+          .addProperty(Core.takesPlaceOn, model.createResource()
+              .addProperty(Core.hasDateTime, String.format("%04d-01-01T00:00:00", 1800 + i),
+                  XSDDatatype.XSDdateTime)));
+    }
+    return model;
+  }
+}
@@ -0,0 +1,46 @@
+package eu.nampi.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+
+class BodyRedisSerializerTests {
+
+  private final BodyRedisSerializer redisSerializer =
+      new BodyRedisSerializer(getClass().getClassLoader());
+
+  @Test
+  void storesBodiesCompressed() {
+    Model model = ModelFactory.createDefaultModel();
+    model.createResource("http://e.org/persons/anna").addProperty(RDFS.label, "Anna");
+    byte[] body = new Serializer().serialize(model, Lang.TURTLE);
+    byte[] stored = redisSerializer.serialize(body);
+    assertEquals((byte) 0x1f, stored[0]);
+    assertEquals((byte) 0x8b, stored[1]);
+    // Cache hits are returned compressed
+    assertSame(stored, redisSerializer.deserialize(stored));
+    assertArrayEquals(body, Serializer.decompress(stored));
+  }
+
+  @Test
+  void roundTripsOtherValuesWithJavaSerialization() {
+    byte[] stored = redisSerializer.serialize(List.of("first", 2L));
+    assertEquals((byte) 0xAC, stored[0]);
+    assertEquals((byte) 0xED, stored[1]);
+    assertEquals(List.of("first", 2L), redisSerializer.deserialize(stored));
+  }
+
+  @Test
+  void readsNothingFromMissingOrEmptyValues() {
+    assertArrayEquals(new byte[0], redisSerializer.serialize(null));
+    assertNull(redisSerializer.deserialize(null));
+    assertNull(redisSerializer.deserialize(new byte[0]));
+  }
+}
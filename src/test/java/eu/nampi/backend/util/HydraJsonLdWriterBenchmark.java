@@ -0,0 +1,59 @@
+package eu.nampi.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing collection pages with the streaming Hydra writer with framing them with the
+ * Jena JSON-LD writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HydraJsonLdWriterBenchmark {
+
+  @Param({"1", "20", "100"})
+  int members;
+
+  private final Serializer serializer = new Serializer();
+  private Model model;
+  private Resource root;
+
+  @Setup
+  public void setUp() {
+    model = BenchmarkModels.events(members);
+    root = BenchmarkModels.root(model);
+    if (!HydraJsonLdWriter.supports(model.getGraph(), root, serializer.context(model))) {
+      throw new IllegalStateException("The pages are not written by the streaming writer");
+    }
+  }
+
+  @Benchmark
+  public byte[] stream() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new HydraJsonLdWriter(serializer.context(model)).write(model.getGraph(), root, out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public String frame() {
+    return LegacyJsonLd.frame(model, root);
+  }
+}
@@ -0,0 +1,108 @@
+package eu.nampi.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.exception.NotFoundException;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+class HydraJsonLdWriterTests {
+
+  private static final String BASE = "http://e.org/";
+
+  private final Serializer serializer = new Serializer();
+  private final Model model = ModelFactory.createDefaultModel()
+      .setNsPrefix("core", Core.getURI())
+      .setNsPrefix("hydra", Hydra.getURI())
+      .setNsPrefix("rdfs", RDFS.getURI());
+
+  @Test
+  void writesSingleEntities() {
+    Resource anna = person("anna", "Anna")
+        .addProperty(OWL.sameAs, model.createResource("http://other.org/anna"))
+        .addProperty(RDFS.comment, "A person");
+    assertFramedAsBefore(anna);
+  }
+
+  @Test
+  void writesCollections() {
+    Resource collection = resource("persons")
+        .addProperty(RDF.type, Hydra.Collection)
+        .addLiteral(Hydra.totalItems, model.createTypedLiteral(2))
+        .addProperty(Hydra.member, person("anna", "Anna"))
+        .addProperty(Hydra.member, person("bert", "Bert"))
+        .addProperty(Hydra.view, resource("persons?page=1")
+            .addProperty(RDF.type, Hydra.PartialCollectionView)
+            .addProperty(Hydra.first, resource("persons?page=1")));
+    assertFramedAsBefore(collection);
+  }
+
+  @Test
+  void writesNestedBlankNodeDates() {
+    Resource birth = resource("events/birth")
+        .addProperty(RDF.type, Core.event)
+        .addProperty(RDFS.label, "Birth", "en")
+        .addProperty(Core.startsLifeOf, person("anna", "Anna"))
+        .addProperty(Core.takesPlaceNotEarlierThan, date("1900-01-01T00:00:00"))
+        .addProperty(Core.takesPlaceNotLaterThan, date("1900-12-31T00:00:00"));
+    assertFramedAsBefore(birth);
+  }
+
+  @Test
+  void writesLanguageTaggedLabels() {
+    Resource rome = resource("places/rome")
+        .addProperty(RDF.type, Core.place)
+        .addProperty(RDFS.label, "Rome", "en")
+        .addProperty(RDFS.label, "Rom", "de")
+        .addProperty(RDFS.label, "Roma");
+    assertFramedAsBefore(rome);
+  }
+
+  @Test
+  void writesRootsWithoutProperties() {
+    assertFramedAsBefore(resource("places/empty").addProperty(RDF.type, Core.place));
+  }
+
+  @Test
+  void rejectsMissingRoots() {
+    assertThrows(NotFoundException.class,
+        () -> serializer.serialize(model, Lang.JSONLD, resource("persons/anna")));
+    person("bert", "Bert").addProperty(OWL.sameAs, resource("persons/anna"));
+    assertThrows(NotFoundException.class,
+        () -> serializer.serialize(model, Lang.JSONLD, resource("persons/anna")));
+  }
+
+  private void assertFramedAsBefore(Resource root) {
+    // The fallback still uses the frame algorithm and would always match
+    assertTrue(HydraJsonLdWriter.supports(model.getGraph(), root, serializer.context(model)));
+    assertEquals(LegacyJsonLd.frame(model, root),
+        new String(serializer.serialize(model, Lang.JSONLD, root), StandardCharsets.UTF_8));
+  }
+
+  private Resource person(String name, String label) {
+    return resource("persons/" + name)
+        .addProperty(RDF.type, Core.person)
+        .addProperty(RDFS.label, label, "en");
+  }
+
+  private Resource date(String dateTime) {
+    return model.createResource()
+        .addProperty(RDF.type, Core.date)
+        .addProperty(Core.hasDateTime, dateTime, XSDDatatype.XSDdateTime);
+  }
+
+  private Resource resource(String name) {
+    return model.createResource(BASE + name);
+  }
+}
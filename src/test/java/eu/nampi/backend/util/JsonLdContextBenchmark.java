@@ -0,0 +1,49 @@
+package eu.nampi.backend.util;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building the JSON-LD context from the terms of the model with extracting it from the
+ * model written by the Jena JSON-LD writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonLdContextBenchmark {
+
+  @Param({"1", "20", "100"})
+  int members;
+
+  private final Serializer serializer = new Serializer();
+  private Model model;
+
+  @Setup
+  public void setUp() {
+    model = BenchmarkModels.events(members);
+  }
+
+  @Benchmark
+  public JsonLdContext buildContext() {
+    return serializer.context(model);
+  }
+
+  @Benchmark
+  public String writeContext() {
+    return LegacyJsonLd.context(model);
+  }
+}
@@ -0,0 +1,47 @@
+package eu.nampi.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.JsonLDWriteContext;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFWriter;
+import net.minidev.json.JSONObject;
+
+/**
+ * The JSON-LD serialization the {@link Serializer} used before it built its own contexts, kept as
+ * the reference the current output is compared with.
+ */
+class LegacyJsonLd {
+
+  private LegacyJsonLd() {}
+
+  static String frame(Model model, Resource startId) {
+    JsonLDWriteContext ctx = new JsonLDWriteContext();
+    JsonLdOptions options = new JsonLdOptions();
+    options.setOmitGraph(true);
+    ctx.setFrame("{\"@context\": " + context(model) + ", \"@id\": \"" + startId + "\"}");
+    ctx.setOptions(options);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RDFWriter.create().format(RDFFormat.JSONLD_FRAME_FLAT).context(ctx).source(model).build()
+        .output(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  static String context(Model model) {
+    Configuration conf = Configuration.builder().jsonProvider(new JacksonJsonProvider()).build();
+    StringWriter writer = new StringWriter();
+    RDFDataMgr.write(writer, model, RDFFormat.JSONLD);
+    String serialized = writer.toString().replace("@context", "context");
+    Map<String, String> res = JsonPath.using(conf).parse(serialized).read("$.context");
+    return new JSONObject(res).toJSONString();
+  }
+}
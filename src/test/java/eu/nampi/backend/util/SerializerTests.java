@@ -0,0 +1,96 @@
+package eu.nampi.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.vocabulary.Core;
+import eu.nampi.backend.vocabulary.Hydra;
+
+class SerializerTests {
+
+  private static final String BASE = "http://e.org/";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Serializer serializer = new Serializer();
+
+  @Test
+  void buildsTheContextOfTheJenaWriter() throws Exception {
+    for (Model model : List.of(entity(), event())) {
+      assertEquals(entries(LegacyJsonLd.context(model)),
+          entries(serializer.context(model).getJson()));
+    }
+  }
+
+  @Test
+  void reusesTheContextOfTheSameTerms() {
+    JsonLdContext context = serializer.context(entity());
+    assertSame(context, serializer.context(entity()));
+    assertNotSame(context, serializer.context(event()));
+  }
+
+  @Test
+  void roundTripsThriftBodies() {
+    Model model = event();
+    byte[] body = serializer.serialize(model, Lang.RDFTHRIFT);
+    assertFalse(Serializer.isCompressed(body));
+    assertTrue(model.isIsomorphicWith(serializer.deserialize(body, Lang.RDFTHRIFT)));
+    // Cached bodies are read compressed
+    assertTrue(model.isIsomorphicWith(
+        serializer.deserialize(Serializer.compress(body), Lang.RDFTHRIFT)));
+  }
+
+  private List<Map.Entry<String, Object>> entries(String json) throws Exception {
+    // Compared as entry lists since the order of the keys is part of the written context
+    return new ArrayList<>(mapper
+        .readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {})
+        .entrySet());
+  }
+
+  private Model entity() {
+    Model model = prefixed();
+    model.createResource(BASE + "persons/anna")
+        .addProperty(RDF.type, Core.person)
+        .addProperty(RDFS.label, "Anna", "en")
+        .addProperty(RDFS.label, "Anna")
+        .addProperty(OWL.sameAs, model.createResource("http://other.org/anna"));
+    return model;
+  }
+
+  private Model event() {
+    Model model = prefixed();
+    model.createResource(BASE + "events")
+        .addProperty(RDF.type, Hydra.Collection)
+        .addLiteral(Hydra.totalItems, model.createTypedLiteral(1))
+        .addProperty(Hydra.member, model.createResource(BASE + "events/birth")
+            .addProperty(RDF.type, Core.event)
+            .addProperty(RDFS.label, "Birth", "en")
+            .addProperty(Core.takesPlaceOn, model.createResource()
+                .addProperty(Core.hasDateTime, "1900-01-01T00:00:00",
+                    XSDDatatype.XSDdateTime)));
+    return model;
+  }
+
+  private Model prefixed() {
+    Model model = ModelFactory.createDefaultModel();
+    model.setNsPrefix("core", Core.getURI());
+    model.setNsPrefix("hydra", Hydra.getURI());
+    model.setNsPrefix("rdfs", RDFS.getURI());
+    return model;
+  }
+}
@@ -0,0 +1,59 @@
+package eu.nampi.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.jupiter.api.Test;
+import eu.nampi.backend.vocabulary.Core;
+
+class SkolemizerTests {
+
+  private static final String EVENT = "http://e.org/events/1";
+
+  private final Skolemizer skolemizer = new Skolemizer();
+
+  @Test
+  void replacesIdenticalBlankNodesWithTheSameIri() {
+    RDFNode first = date(skolemizer.skolemize(dated(EVENT, "1900-01-01T00:00:00")));
+    RDFNode second = date(skolemizer.skolemize(dated(EVENT, "1900-01-01T00:00:00")));
+    assertTrue(first.isURIResource());
+    assertTrue(first.asResource().getURI().startsWith("http://e.org/.well-known/genid/"));
+    assertEquals(first, second);
+  }
+
+  @Test
+  void keepsTheStatementsOfTheBlankNode() {
+    Model skolemized = skolemizer.skolemize(dated(EVENT, "1900-01-01T00:00:00"));
+    Resource date = date(skolemized).asResource();
+    assertEquals("1900-01-01T00:00:00",
+        date.getProperty(Core.hasDateTime).getLiteral().getLexicalForm());
+    assertFalse(skolemized.listStatements().toList().stream()
+        .anyMatch(statement -> statement.getSubject().isAnon()
+            || statement.getObject().isAnon()));
+  }
+
+  @Test
+  void distinguishesOwnersAndContents() {
+    RDFNode date = date(skolemizer.skolemize(dated(EVENT, "1900-01-01T00:00:00")));
+    assertNotEquals(date,
+        date(skolemizer.skolemize(dated("http://e.org/events/2", "1900-01-01T00:00:00"))));
+    assertNotEquals(date, date(skolemizer.skolemize(dated(EVENT, "1901-01-01T00:00:00"))));
+  }
+
+  private Model dated(String event, String dateTime) {
+    Model model = ModelFactory.createDefaultModel();
+    model.createResource(event).addProperty(Core.takesPlaceOn, model.createResource()
+        .addProperty(Core.hasDateTime, dateTime, XSDDatatype.XSDdateTime));
+    return model;
+  }
+
+  private RDFNode date(Model model) {
+    return model.listObjectsOfProperty(Core.takesPlaceOn).next();
+  }
+}
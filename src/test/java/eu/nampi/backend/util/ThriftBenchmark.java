@@ -0,0 +1,60 @@
+package eu.nampi.backend.util;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing and parsing back collection pages as RDF Thrift and as JSON-LD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThriftBenchmark {
+
+  @Param({"RDF-THRIFT", "JSON-LD"})
+  String format;
+
+  @Param({"20", "100"})
+  int members;
+
+  private final Serializer serializer = new Serializer();
+  private Lang lang;
+  private Model model;
+  private Resource root;
+  private byte[] body;
+
+  @Setup
+  public void setUp() {
+    lang = RDFLanguages.nameToLang(format);
+    model = BenchmarkModels.events(members);
+    root = BenchmarkModels.root(model);
+    body = serializer.serialize(model, lang, root);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.serialize(model, lang, root);
+  }
+
+  @Benchmark
+  public Model deserialize() {
+    return serializer.deserialize(body, lang);
+  }
+}